@@ -7,6 +7,7 @@
 
 @file:Suppress("ktlint:standard:no-consecutive-comments", "UseTomlInstead")
 
+import java.security.MessageDigest
 
 
 plugins {
@@ -45,6 +46,11 @@ android {
         resValues = true
     }
 
+    androidResources {
+        // Store PDFs uncompressed, so `AssetStore` can extract them with a kernel-side copy.
+        noCompress += "pdf"
+    }
+
     packaging {
         resources {
             excludes += "/META-INF/{AL2.0,LGPL2.1}"
@@ -53,6 +59,11 @@ android {
     }
 
 
+    testOptions {
+        // Lets unit tests exercise the catalog's data providers on the JVM, where `android.util.Log` is a stub.
+        unitTests.isReturnDefaultValues = true
+    }
+
     lint {
         warningsAsErrors = true
         // The Catalog app is a demo app with only English strings.
@@ -63,6 +74,21 @@ android {
     }
 }
 
+// Ships a checksum manifest of all assets, so `ExtractAssetTask` only re-extracts assets that changed.
+val generateAssetManifest =
+    tasks.register<GenerateAssetManifestTask>("generateAssetManifest") {
+        assetsDirectory.set(layout.projectDirectory.dir("src/main/assets"))
+    }
+
+androidComponents {
+    onVariants { variant ->
+        variant.sources.assets?.addGeneratedSourceDirectory(
+            generateAssetManifest,
+            GenerateAssetManifestTask::outputDirectory,
+        )
+    }
+}
+
 dependencies {
 
     // The Nutrient SDK is integrated from Maven Central (configured in the `repositories` block
@@ -136,3 +162,44 @@ dependencies {
     runtimeOnly("io.jsonwebtoken:jjwt-impl:0.11.5")
     runtimeOnly("io.jsonwebtoken:jjwt-jackson:0.11.5")
 }
+
+/**
+ * Writes `asset-manifest.txt`, listing the SHA-1 of every bundled asset in `sha1sum` format. It is read
+ * at runtime by `AssetManifest`.
+ */
+abstract class GenerateAssetManifestTask : DefaultTask() {
+    @get:InputDirectory
+    @get:PathSensitive(PathSensitivity.RELATIVE)
+    abstract val assetsDirectory: DirectoryProperty
+
+    @get:OutputDirectory
+    abstract val outputDirectory: DirectoryProperty
+
+    @TaskAction
+    fun generate() {
+        val root = assetsDirectory.get().asFile
+        val lines =
+            root
+                .walkTopDown()
+                .filter { it.isFile }
+                .map { file -> "${sha1(file)}  ${file.relativeTo(root).invariantSeparatorsPath}" }
+                .sorted()
+                .toList()
+        val manifest = outputDirectory.get().file("asset-manifest.txt").asFile
+        manifest.parentFile.mkdirs()
+        manifest.writeText(lines.joinToString(separator = "\n", postfix = "\n"))
+    }
+
+    private fun sha1(file: File): String {
+        val digest = MessageDigest.getInstance("SHA-1")
+        file.inputStream().use { input ->
+            val buffer = ByteArray(64 * 1024)
+            while (true) {
+                val read = input.read(buffer)
+                if (read < 0) break
+                digest.update(buffer, 0, read)
+            }
+        }
+        return digest.digest().joinToString(separator = "") { "%02x".format(it) }
+    }
+}
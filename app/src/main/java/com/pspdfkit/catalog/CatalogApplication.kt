@@ -8,12 +8,16 @@
 package com.pspdfkit.catalog
 
 import android.app.Application
+import android.content.ComponentCallbacks2
+import com.pspdfkit.catalog.tasks.AssetPrewarmer
 import com.pspdfkit.catalog.ui.model.PreferenceKeys
 import com.pspdfkit.catalog.utils.FreezeDetector
+import com.pspdfkit.catalog.utils.PageTextCache
 import com.pspdfkit.catalog.utils.dataStore
 import com.pspdfkit.preferences.PSPDFKitPreferences
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.SupervisorJob
 import kotlinx.coroutines.flow.distinctUntilChanged
 import kotlinx.coroutines.flow.map
@@ -26,6 +30,7 @@ import kotlinx.coroutines.launch
  */
 class CatalogApplication : Application() {
     private val applicationScope = CoroutineScope(SupervisorJob() + Dispatchers.Default)
+    private var assetPrewarming: Job? = null
 
     override fun onCreate() {
         super.onCreate()
@@ -33,6 +38,16 @@ class CatalogApplication : Application() {
         NutrientReporting.initializeBugReporting(this)
         observeFreezeDetectorPreference()
         observeMemoryTraceLoggingPreference()
+        assetPrewarming = AssetPrewarmer.start(this, applicationScope)
+    }
+
+    override fun onTrimMemory(level: Int) {
+        super.onTrimMemory(level)
+        // Prewarming is only worth it while the user is in the app, and shouldn't fill the page cache under pressure.
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+            assetPrewarming?.cancel()
+        }
+        PageTextCache.onTrimMemory(level)
     }
 
     private fun observeFreezeDetectorPreference() {
@@ -25,18 +25,32 @@ import com.pspdfkit.document.providers.WritableDataProvider;
 import com.pspdfkit.ui.PdfActivityIntentBuilder;
 import java.io.Closeable;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.RandomAccessFile;
-import java.nio.channels.Channels;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.crypto.Cipher;
-import javax.crypto.CipherInputStream;
-import javax.crypto.CipherOutputStream;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 
@@ -68,12 +82,16 @@ public class AesEncryptedFileExample extends SdkExample {
 
     /**
      * This is a DataProvider that will open and decrypt an AES256-CTR encrypted file on the fly. It
-     * won't store decrypted blocks anywhere and allows random seeking to prevent large PDF files from
-     * causing OutOfMemoryExceptions.
+     * allows random seeking to prevent large PDF files from causing OutOfMemoryExceptions, and only
+     * keeps a bounded number of recently decrypted pages in memory.
      *
      * <p>The file itself has a 16-byte IV (also called nonce) prepended before the actual encrypted
      * payload. This serves as the initialization vector for decrypting the first byte. Subsequent bytes
      * use an incremented IV, for example block n uses IV+n.
+     *
+     * <p>Since every block can be encrypted on its own, incremental saves are appended to the end of the
+     * file. A small tail marker file next to the document records how many bytes were committed by the
+     * last successful save, so bytes of an append interrupted by a crash are ignored and overwritten.
      */
     public static class AesDataProvider implements WritableDataProvider, Parcelable {
         public static final Creator<AesDataProvider> CREATOR = new Creator<>() {
@@ -91,12 +109,31 @@ public class AesEncryptedFileExample extends SdkExample {
         private static final int IV_SIZE = 16;
         private static final int FILE_SIZE_NOT_SET = -1;
 
+        /** Suffix of the tail marker file, holding the file's IV followed by its committed decrypted size. */
+        private static final String TAIL_MARKER_SUFFIX = ".tail";
+        private static final int TAIL_MARKER_SIZE = IV_SIZE + 8;
+
+        /**
+         * Size of the decrypted pages kept in the page cache. This is a multiple of the AES block size,
+         * so every page starts on a block boundary.
+         */
+        private static final int PAGE_SIZE = 64 * 1024;
+
+        /** Maximum number of decrypted pages kept in memory, 4 MB in total. */
+        private static final int MAX_CACHED_PAGES = 64;
+
+        /** Default number of read contexts, i.e. of concurrent reads and open file handles. */
+        public static final int DEFAULT_MAX_CONCURRENT_READS = 4;
+
         @NonNull
         private final File encryptedFile;
 
         @NonNull
         private final byte[] encryptedFileKey;
 
+        @NonNull
+        private final SecretKeySpec secretKey;
+
         private long decryptedFileSize = FILE_SIZE_NOT_SET;
 
         @Nullable
@@ -104,24 +141,49 @@ public class AesEncryptedFileExample extends SdkExample {
 
         private File temporaryOutputFile;
         private FileOutputStream fos;
-        private CipherOutputStream cos;
-
-        // Per Thread Data - When multi threaded rendering is activated read() can be called from
-        // multiple threads at the
-        // same time. In order to support this we store everything we need for reading on a per thread
-        // basis, otherwise
-        // conflicts might lead to an exception being thrown.
-        // We don't use ThreadLocal here as we need to be able clean everything from a single thread.
-        // This is open file information per thread.
+        private EncryptionPipeline writePipeline;
+        private WriteMode currentWriteMode;
+
+        // When multi threaded rendering is activated read() can be called from multiple threads at the
+        // same time. In order to support this every read leases everything it needs for reading (open
+        // file, cipher and buffers) from a pool, otherwise conflicts might lead to an exception being
+        // thrown. The pool is bounded, so the number of open file handles doesn't grow with the number
+        // of threads that ever read from this provider.
+        private final int maxConcurrentReads;
+
         @NonNull
-        private final ConcurrentHashMap<Thread, RandomAccessFile> openFileHandles = new ConcurrentHashMap<>();
-        // We also need a Cipher for every thread.
+        private final ReadContextPool readContexts;
+
+        // The PDF engine reads the same parts of a document (xref, object streams, fonts) many times
+        // while rendering. Decrypted pages are cached and shared between all reading threads, so
+        // those reads don't have to be decrypted again.
         @NonNull
-        private final ConcurrentHashMap<Thread, Cipher> aesCipherMap = new ConcurrentHashMap<>();
+        private final DecryptedPageCache pageCache = new DecryptedPageCache(MAX_CACHED_PAGES);
 
         public AesDataProvider(@NonNull String encryptedFilePath, @NonNull String base64Aes256Key) {
+            this(encryptedFilePath, base64Aes256Key, DEFAULT_MAX_CONCURRENT_READS);
+        }
+
+        /**
+         * @param maxConcurrentReads Maximum number of reads decrypting at the same time. Every
+         *     concurrent read holds its own file handle and cipher, further reads wait for one of them.
+         */
+        public AesDataProvider(
+                @NonNull String encryptedFilePath, @NonNull String base64Aes256Key, int maxConcurrentReads) {
+            this(encryptedFilePath, Base64.decode(base64Aes256Key, Base64.DEFAULT), maxConcurrentReads);
+        }
+
+        /**
+         * @param aes256Key The raw 256 bit AES key.
+         * @param maxConcurrentReads Maximum number of reads decrypting at the same time.
+         */
+        public AesDataProvider(@NonNull String encryptedFilePath, @NonNull byte[] aes256Key, int maxConcurrentReads) {
+            if (maxConcurrentReads < 1) throw new IllegalArgumentException("At least one read has to be allowed.");
             encryptedFile = new File(encryptedFilePath);
-            encryptedFileKey = Base64.decode(base64Aes256Key, Base64.DEFAULT);
+            encryptedFileKey = aes256Key;
+            secretKey = new SecretKeySpec(encryptedFileKey, "AES");
+            this.maxConcurrentReads = maxConcurrentReads;
+            readContexts = new ReadContextPool(maxConcurrentReads, this::createReadContext);
         }
 
         /**
@@ -134,68 +196,105 @@ public class AesEncryptedFileExample extends SdkExample {
         private AesDataProvider(Parcel in) {
             encryptedFile = new File(in.readString());
             encryptedFileKey = in.createByteArray();
+            secretKey = new SecretKeySpec(encryptedFileKey, "AES");
+            maxConcurrentReads = in.readInt();
+            readContexts = new ReadContextPool(maxConcurrentReads, this::createReadContext);
         }
 
         /**
          * In AES-CTR mode, each AES block is encrypted with a key and IV. IV is incremented by number 1
          * for each next block, so to figure out the IV for block N, we need to add N to the initial IV.
-         * Only lower four bytes of IV can change like this.
+         * Like the cipher's own counter, the whole IV is treated as one 128 bit big-endian number, so
+         * carries propagate into the upper bytes. The IV is written into {@code iv}, so no new array is
+         * needed for every read.
          */
-        private static byte[] getIvForBlock(byte[] originalIv, long block) {
-            long counter = ((long) originalIv[12] << 24 & 0xFF000000)
-                    | ((long) originalIv[13] << 16) & 0xFF0000
-                    | ((long) originalIv[14] << 8) & 0xFF00
-                    | ((long) originalIv[15] & 0xFF);
-            counter += block;
+        private static void computeIvForBlock(byte[] originalIv, long block, byte[] iv) {
+            System.arraycopy(originalIv, 0, iv, 0, IV_SIZE);
+            long carry = block;
+            for (int i = IV_SIZE - 1; i >= 0 && carry != 0; i--) {
+                final int sum = (iv[i] & 0xFF) + (int) (carry & 0xFF);
+                iv[i] = (byte) sum;
+                carry = (carry >>> 8) + (sum >>> 8);
+            }
+        }
 
-            byte[] iv = Arrays.copyOf(originalIv, 16);
-            iv[12] = (byte) ((counter >> 24) & 0xFF);
-            iv[13] = (byte) ((counter >> 16) & 0xFF);
-            iv[14] = (byte) ((counter >> 8) & 0xFF);
-            iv[15] = (byte) (counter & 0xFF);
-            return iv;
+        /** This opens the file for a new {@link ReadContext} and reads the IV if it wasn't read yet. */
+        @NonNull
+        private ReadContext createReadContext() throws IOException {
+            final ReadContext context;
+            RandomAccessFile file = new RandomAccessFile(encryptedFile, "r");
+            if (encryptedFileIv == null) {
+                synchronized (this) {
+                    if (encryptedFileIv == null) {
+                        // Encrypted file IV is stored at the beginning of the file, read it.
+                        final byte[] iv = new byte[16];
+                        file.readFully(iv, 0, 16);
+
+                        // Don't take saved IV or bytes of an interrupted append into account.
+                        decryptedFileSize = readCommittedSize(iv, file.length() - IV_SIZE);
+                        encryptedFileIv = iv;
+                    }
+                }
+            }
+
+            try {
+                context = new ReadContext(file, Cipher.getInstance("AES/CTR/NoPadding"));
+            } catch (GeneralSecurityException e) {
+                file.close();
+                throw new IOException("This device does not support AES-CTR!");
+            }
+            Log.i(TAG, "Opened encrypted file " + encryptedFile.getAbsolutePath() + " size " + decryptedFileSize);
+            return context;
         }
 
         /**
-         * This opens the file and reads the IV if it wasn't read yet. Every thread calling this gets
-         * its own RandomAccessFile.
+         * Returns the decrypted size committed by the last successful save. This is smaller than the
+         * file's payload if an append was interrupted before it finished.
          */
-        private RandomAccessFile openFile() throws IOException {
-            if (openFileHandles.containsKey(Thread.currentThread())) {
-                return openFileHandles.get(Thread.currentThread());
-            } else {
-                RandomAccessFile file = new RandomAccessFile(encryptedFile, "r");
-
-                if (encryptedFileIv == null) {
-                    synchronized (this) {
-                        if (encryptedFileIv == null) {
-                            // Encrypted file IV is stored at the beginning of the file, read it.
-                            encryptedFileIv = new byte[16];
-                            file.read(encryptedFileIv, 0, 16);
-
-                            decryptedFileSize = file.length() - IV_SIZE; // Don't take saved IV into account.
-                        }
+        private long readCommittedSize(@NonNull byte[] iv, long payloadSize) {
+            final File marker = getTailMarkerFile();
+            if (!marker.exists()) return payloadSize;
+            try (DataInputStream input = new DataInputStream(new FileInputStream(marker))) {
+                final byte[] markerIv = new byte[IV_SIZE];
+                input.readFully(markerIv);
+                final long committedSize = input.readLong();
+                // A marker with a different IV belongs to a file that has since been rewritten.
+                if (Arrays.equals(iv, markerIv) && committedSize <= payloadSize) {
+                    if (committedSize < payloadSize) {
+                        Log.w(TAG, "Ignoring " + (payloadSize - committedSize) + " bytes of an interrupted save.");
                     }
+                    return committedSize;
                 }
+            } catch (IOException e) {
+                Log.w(TAG, "Could not read tail marker " + marker.getAbsolutePath() + ": " + e.getMessage(), e);
+            }
+            return payloadSize;
+        }
 
-                Log.i(TAG, "Opened encrypted file " + encryptedFile.getAbsolutePath() + " size " + decryptedFileSize);
-                openFileHandles.put(Thread.currentThread(), file);
-                return file;
+        /** Atomically replaces the tail marker, so it always holds either the old or the new size. */
+        private void writeTailMarker(@NonNull byte[] iv, long committedSize) throws IOException {
+            final File marker = getTailMarkerFile();
+            final File temporaryMarker = new File(marker.getPath() + ".tmp");
+            try (FileOutputStream output = new FileOutputStream(temporaryMarker)) {
+                final ByteBuffer contents = ByteBuffer.allocate(TAIL_MARKER_SIZE);
+                contents.put(iv).putLong(committedSize).flip();
+                output.getChannel().write(contents);
+                output.getFD().sync();
+            }
+            if (!temporaryMarker.renameTo(marker)) {
+                throw new IOException("Could not replace tail marker " + marker.getAbsolutePath());
             }
         }
 
-        /** Creates a Cipher set up for decrypting. Every thread calling this gets its own Cipher. */
-        private Cipher getCipher() throws IOException {
-            if (aesCipherMap.containsKey(Thread.currentThread())) {
-                return aesCipherMap.get(Thread.currentThread());
-            } else {
-                try {
-                    Cipher aesCipher = Cipher.getInstance("AES/CTR/NoPadding");
-                    aesCipherMap.put(Thread.currentThread(), aesCipher);
-                    return aesCipher;
-                } catch (GeneralSecurityException e) {
-                    throw new IOException("This device does not support AES-CTR!");
-                }
+        @NonNull
+        private File getTailMarkerFile() {
+            return new File(encryptedFile.getPath() + TAIL_MARKER_SUFFIX);
+        }
+
+        /** Makes sure the IV and the decrypted file size are known. */
+        private void ensureFileOpened() throws IOException {
+            if (encryptedFileIv == null) {
+                readContexts.release(readContexts.acquire());
             }
         }
 
@@ -203,45 +302,21 @@ public class AesEncryptedFileExample extends SdkExample {
         @Override
         public byte[] read(long size, long offset) {
             try {
-                // Grab the thread specific data needed for reading.
-                RandomAccessFile file = openFile();
-                Cipher aesCipher = getCipher();
-
-                // AES is encrypted in 16B blocks which are the minimum we can read. So here we need to
-                // figure out which block the offset falls in and start
-                // decryption there.
-                long block = offset / AES_BLOCK_SIZE;
-
-                // Each block has different IV, so we need to calculate the IV of the first block to
-                // start decrypting.
-                IvParameterSpec ivParameterSpec = new IvParameterSpec(getIvForBlock(encryptedFileIv, block));
-                aesCipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(encryptedFileKey, "AES"), ivParameterSpec);
-
-                // Figure out the location of the encrypted block inside the file - we need to add 16 to
-                // offset because we stored IV at the beginning of the file.
-                long seekPos = (block * AES_BLOCK_SIZE) + IV_SIZE;
-                file.seek(seekPos);
-
-                // Initialize cipher stream from the set file location.
-                final CipherInputStream cis =
-                        new CipherInputStream(Channels.newInputStream(file.getChannel()), aesCipher);
-
-                // On some devices (primarily Samsung) CipherInputStream implementations suffer from a
-                // bug that stops reading early once an internal buffer is hit.
-                // Wrapping the cipher stream into a DataInputStream allows to reliably read the entire
-                // chunk that was requested.
-                DataInputStream input = new DataInputStream(cis);
-
-                // Since we had to start on an AES block boundary, skip bytes which may not align with
-                // it.
-                int toSkip = (int) (offset % AES_BLOCK_SIZE);
-                while (toSkip > 0) {
-                    toSkip -= input.skip(toSkip);
-                }
+                ensureFileOpened();
+                if (offset < 0 || offset >= decryptedFileSize) return new byte[0];
 
-                // Read and decrypt data into the byte array.
-                byte[] decryptedData = new byte[(int) size];
-                input.readFully(decryptedData);
+                final byte[] decryptedData = new byte[(int) Math.min(size, decryptedFileSize - offset)];
+                int copied = 0;
+                while (copied < decryptedData.length) {
+                    final long position = offset + copied;
+                    final long pageIndex = position / PAGE_SIZE;
+                    final byte[] page = getPage(pageIndex);
+                    final int offsetInPage = (int) (position - pageIndex * PAGE_SIZE);
+                    final int length = Math.min(page.length - offsetInPage, decryptedData.length - copied);
+                    if (length <= 0) throw new IOException("Unexpected end of file at " + position);
+                    System.arraycopy(page, offsetInPage, decryptedData, copied, length);
+                    copied += length;
+                }
                 return decryptedData;
             } catch (GeneralSecurityException | IOException e) {
                 Log.e(TAG, "Crypto exception: " + e.getMessage(), e);
@@ -252,6 +327,98 @@ public class AesEncryptedFileExample extends SdkExample {
             }
         }
 
+        /** Returns the decrypted page with the given index, decrypting it if it isn't cached yet. */
+        @NonNull
+        private byte[] getPage(long pageIndex) throws GeneralSecurityException, IOException {
+            // Remember the cache generation before decrypting, so a page decrypted from a file that is
+            // replaced in the meantime is never cached.
+            final long generation = pageCache.getGeneration();
+            byte[] page = pageCache.get(pageIndex);
+            if (page == null) {
+                final long pageStart = pageIndex * PAGE_SIZE;
+                page = decrypt(pageStart, (int) Math.min(PAGE_SIZE, decryptedFileSize - pageStart));
+                pageCache.put(pageIndex, page, generation);
+            }
+            return page;
+        }
+
+        /**
+         * Decrypts {@code size} bytes starting at {@code offset}, which has to be block aligned and
+         * {@code size} must not exceed {@link #PAGE_SIZE}. Apart from the returned array, this doesn't
+         * allocate anything while reading sequentially.
+         */
+        @NonNull
+        private byte[] decrypt(long offset, int size) throws GeneralSecurityException, IOException {
+            // Lease the data needed for reading, waiting if all contexts are in use.
+            final ReadContext context = readContexts.acquire();
+            try {
+                return decrypt(context, offset, size);
+            } finally {
+                readContexts.release(context);
+            }
+        }
+
+        @NonNull
+        private byte[] decrypt(@NonNull ReadContext context, long offset, int size)
+                throws GeneralSecurityException, IOException {
+            // AES is encrypted in 16B blocks which are the minimum we can read. Pages always start on
+            // a block boundary.
+            final long block = offset / AES_BLOCK_SIZE;
+
+            // Each block has different IV. If the context's cipher stopped right before this block, its
+            // counter already has the right value. Otherwise we need to calculate the IV of the first
+            // block to start decrypting.
+            if (block != context.nextBlock) {
+                computeIvForBlock(encryptedFileIv, block, context.iv);
+                context.cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(context.iv));
+            }
+            // Only valid again once decryption succeeded.
+            context.nextBlock = -1;
+
+            // Figure out the location of the encrypted block inside the file - we need to add 16 to
+            // offset because we stored IV at the beginning of the file.
+            final long filePosition = (block * AES_BLOCK_SIZE) + IV_SIZE;
+            final ByteBuffer encryptedData = context.encryptedData;
+            encryptedData.clear();
+            encryptedData.limit(size);
+            while (encryptedData.hasRemaining()) {
+                if (context.channel.read(encryptedData, filePosition + encryptedData.position()) < 0) {
+                    throw new EOFException("Unexpected end of file at " + (offset + encryptedData.position()));
+                }
+            }
+            encryptedData.flip();
+
+            // Read and decrypt data into the byte array.
+            final byte[] decryptedData = new byte[size];
+            if (context.cipher.update(encryptedData, ByteBuffer.wrap(decryptedData)) != size) {
+                throw new IOException("Cipher did not decrypt all " + size + " bytes at " + offset);
+            }
+            if (size % AES_BLOCK_SIZE == 0) {
+                context.nextBlock = block + size / AES_BLOCK_SIZE;
+            }
+            return decryptedData;
+        }
+
+        /** Returns how many reads had to wait for a read context, because all of them were in use. */
+        public long getReadContentionCount() {
+            return readContexts.getContentionCount();
+        }
+
+        /** Returns the total time reads spent waiting for a read context, in nanoseconds. */
+        public long getReadWaitTimeNanos() {
+            return readContexts.getWaitTimeNanos();
+        }
+
+        /** Returns how many reads of a page were served from the page cache. */
+        public long getCacheHitCount() {
+            return pageCache.getHitCount();
+        }
+
+        /** Returns how many reads of a page had to decrypt the page. */
+        public long getCacheMissCount() {
+            return pageCache.getMissCount();
+        }
+
         /** Nutrient expects size of decrypted PDF here. */
         @Override
         public long getSize() {
@@ -260,7 +427,7 @@ public class AesEncryptedFileExample extends SdkExample {
                 // We do it as late as possible since right after saving the size sometimes isn't
                 // updated yet.
                 try {
-                    openFile();
+                    ensureFileOpened();
                 } catch (IOException e) {
                     decryptedFileSize = encryptedFile.length() - IV_SIZE;
                 }
@@ -285,17 +452,32 @@ public class AesEncryptedFileExample extends SdkExample {
         public void release() {
             try {
                 Log.e(TAG, "Closing file " + encryptedFile.getAbsolutePath());
+                Log.i(
+                        TAG,
+                        "Decrypted page cache hits: " + pageCache.getHitCount() + ", misses: "
+                                + pageCache.getMissCount() + ", contended reads: "
+                                + readContexts.getContentionCount() + ", waited "
+                                + TimeUnit.NANOSECONDS.toMillis(readContexts.getWaitTimeNanos()) + " ms");
+                pageCache.invalidate();
+                if (writePipeline != null) {
+                    // The document was closed in the middle of saving.
+                    writePipeline.abort();
+                    writePipeline = null;
+                    safelyClose(fos);
+                    fos = null;
+                    // An aborted rewrite never replaces the original file.
+                    if (temporaryOutputFile != null) {
+                        temporaryOutputFile.delete();
+                        temporaryOutputFile = null;
+                    }
+                }
                 closeFiles();
             } catch (IOException ignored) {
             }
         }
 
         private void closeFiles() throws IOException {
-            for (RandomAccessFile file : openFileHandles.values()) {
-                file.close();
-            }
-            openFileHandles.clear();
-            aesCipherMap.clear();
+            readContexts.clear();
         }
 
         @Override
@@ -311,9 +493,8 @@ public class AesEncryptedFileExample extends SdkExample {
 
         @Override
         public boolean startWrite(@NonNull WriteMode writeMode) {
-            // We return "supportsAppending()" as "false" so this shouldn't happen.
-            if (writeMode == WriteMode.APPEND_TO_FILE)
-                throw new IllegalArgumentException("Appending isn't supported by this provider.");
+            currentWriteMode = writeMode;
+            if (writeMode == WriteMode.APPEND_TO_FILE) return startAppend();
 
             // We need to save information into a temporary file since input file will probably be read
             // as saving is in progress.
@@ -332,9 +513,8 @@ public class AesEncryptedFileExample extends SdkExample {
                 // Setup encryption - use same key as for the input.
                 Cipher c = Cipher.getInstance("AES/CTR/NoPadding");
                 IvParameterSpec ivSpec = new IvParameterSpec(outputAesIv);
-                SecretKeySpec outputKey = new SecretKeySpec(encryptedFileKey, "AES");
-                c.init(Cipher.ENCRYPT_MODE, outputKey, ivSpec);
-                cos = new CipherOutputStream(fos, c);
+                c.init(Cipher.ENCRYPT_MODE, secretKey, ivSpec);
+                writePipeline = new EncryptionPipeline(fos.getChannel(), c);
             } catch (IOException | GeneralSecurityException e) {
                 Log.e(TAG, "Failed to open file for writing - " + e.getMessage(), e);
                 return false;
@@ -349,10 +529,49 @@ public class AesEncryptedFileExample extends SdkExample {
             return true;
         }
 
+        /**
+         * Prepares encrypting appended data in place, right after the last committed byte. Since the
+         * counter of every block can be computed, the existing payload doesn't have to be touched.
+         */
+        private boolean startAppend() {
+            try {
+                ensureFileOpened();
+                final byte[] iv = encryptedFileIv;
+                final long committedSize = decryptedFileSize;
+
+                // Record the committed size before touching the file, so a crash while appending never
+                // makes partially written bytes part of the document.
+                writeTailMarker(iv, committedSize);
+                try (RandomAccessFile file = new RandomAccessFile(encryptedFile, "rw")) {
+                    // Drop bytes left behind by a previously interrupted append.
+                    file.setLength(IV_SIZE + committedSize);
+                }
+                fos = new FileOutputStream(encryptedFile, true);
+
+                // The appended data continues in the middle of the last block, so advance the cipher's
+                // key stream to the right position inside that block.
+                final byte[] blockIv = new byte[IV_SIZE];
+                computeIvForBlock(iv, committedSize / AES_BLOCK_SIZE, blockIv);
+                Cipher c = Cipher.getInstance("AES/CTR/NoPadding");
+                c.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(blockIv));
+                c.update(new byte[(int) (committedSize % AES_BLOCK_SIZE)]);
+                writePipeline = new EncryptionPipeline(fos.getChannel(), c);
+            } catch (IOException | GeneralSecurityException e) {
+                Log.e(TAG, "Failed to open file for appending - " + e.getMessage(), e);
+                safelyClose(fos);
+                fos = null;
+                return false;
+            }
+
+            Log.i(TAG, "Appending changes to " + encryptedFile.getName() + " at " + decryptedFileSize);
+            return true;
+        }
+
+        /** Hands {@code data} over to the write pipeline, which encrypts and writes it in the background. */
         @Override
         public boolean write(@NonNull byte[] data) {
             try {
-                cos.write(data);
+                writePipeline.write(data);
             } catch (IOException e) {
                 Log.e(TAG, "Failed to write encrypted file - " + e.getMessage(), e);
                 return false;
@@ -363,20 +582,17 @@ public class AesEncryptedFileExample extends SdkExample {
 
         @Override
         public boolean finishWrite() {
+            if (currentWriteMode == WriteMode.APPEND_TO_FILE) return finishAppend();
+
             // File has finished writing. Now we need to close the input file and replace it with the
             // freshly written temporary file.
             // Any reads after that will expect the new file already.
 
-            Throwable[] closeErrors = new Throwable[3];
+            Throwable[] closeErrors = new Throwable[2];
             boolean success = true;
-            closeErrors[0] = safelyClose(cos);
+            closeErrors[0] = finishPipeline();
             closeErrors[1] = safelyClose(fos);
-
-            try {
-                closeFiles();
-            } catch (Throwable ex) {
-                closeErrors[2] = ex;
-            }
+            fos = null;
 
             for (Throwable e : closeErrors) {
                 if (e != null) {
@@ -385,31 +601,107 @@ public class AesEncryptedFileExample extends SdkExample {
                 }
             }
 
+            if (!success) {
+                // Write errors only surface once the pipeline finished, so the temporary file may be
+                // truncated. Keep the original file and its IV, and drop the incomplete copy.
+                temporaryOutputFile.delete();
+                temporaryOutputFile = null;
+                return false;
+            }
+
             // Delete original file
             if (!encryptedFile.delete()) success = false;
             if (!temporaryOutputFile.renameTo(encryptedFile)) success = false;
 
             if (!success) {
+                discardReadsOfReplacedFile();
                 return false;
             }
 
             temporaryOutputFile = null;
-            cos = null;
-            fos = null;
             // We need to reset the iv after writing since we always pick a new one when saving.
             encryptedFileIv = null;
+            // The rewritten file is complete, so its tail marker is no longer needed. If this fails,
+            // the marker's stale IV makes sure it's ignored.
+            getTailMarkerFile().delete();
 
             // We need to update the stored file size now as well.
             decryptedFileSize = encryptedFile.length() - IV_SIZE;
+            discardReadsOfReplacedFile();
             Log.i(TAG, "Writing complete, replaced original file with new file of size " + decryptedFileSize);
             return true;
         }
 
+        /**
+         * Closes the read contexts and drops the cached pages of the file that was just replaced. This
+         * has to happen after the IV and size were reset: reads running during the swap still use the
+         * previous cache generation, so whatever they decrypted is never cached.
+         */
+        private void discardReadsOfReplacedFile() {
+            try {
+                closeFiles();
+            } catch (IOException e) {
+                Log.w(TAG, "Could not close the replaced file - " + e.getMessage(), e);
+            }
+            pageCache.invalidate();
+        }
+
+        /**
+         * Makes the appended data durable, then commits it by updating the tail marker. The IV and the
+         * existing payload stay the same, so only the cached pages touched by the append are dropped.
+         */
+        private boolean finishAppend() {
+            final long previousSize = decryptedFileSize;
+            final Throwable pipelineError = finishPipeline();
+            if (pipelineError != null) {
+                Log.e(TAG, "Failed to write appended data - " + pipelineError.getMessage(), pipelineError);
+                safelyClose(fos);
+                return false;
+            }
+            final Throwable closeError = safelyClose(fos);
+            if (closeError != null) {
+                Log.e(TAG, "Error while closing output streams - " + closeError.getMessage(), closeError);
+                return false;
+            }
+            fos = null;
+
+            final long committedSize = encryptedFile.length() - IV_SIZE;
+            try {
+                writeTailMarker(encryptedFileIv, committedSize);
+            } catch (IOException e) {
+                Log.e(TAG, "Failed to commit appended data - " + e.getMessage(), e);
+                return false;
+            }
+
+            // Cached pages were decrypted before the append, starting at the page holding the old end.
+            // The size is updated first, so pages decrypted after the invalidation use the new size.
+            decryptedFileSize = committedSize;
+            pageCache.invalidateFrom(previousSize / PAGE_SIZE);
+            Log.i(TAG, "Appending complete, appended " + (committedSize - previousSize) + " bytes");
+            return true;
+        }
+
+        /**
+         * Waits until all data handed to the write pipeline is written and synced to disk.
+         *
+         * @return The error that stopped the pipeline, or {@code null} if all data was written.
+         */
+        @Nullable
+        private Throwable finishPipeline() {
+            try {
+                writePipeline.finish();
+                return null;
+            } catch (Throwable e) {
+                return e;
+            } finally {
+                writePipeline = null;
+            }
+        }
+
         @Override
         public boolean supportsAppending() {
-            // Even though AES-CTR mode allows us to actually append as well, this example will keep it
-            // simple and always rewrite the full file on save.
-            return false;
+            // AES-CTR can encrypt starting at any block, so incremental saves are appended in place.
+            return true;
         }
 
         @Nullable
@@ -431,6 +723,369 @@ public class AesEncryptedFileExample extends SdkExample {
         public void writeToParcel(Parcel dest, int flags) {
             dest.writeString(encryptedFile.getAbsolutePath());
             dest.writeByteArray(encryptedFileKey);
+            dest.writeInt(maxConcurrentReads);
+        }
+    }
+
+    /**
+     * Encrypts and writes saved data on two dedicated stages, so encrypting the next buffer overlaps
+     * with writing the previous ones and a save takes roughly as long as the slower of both. The caller
+     * copies data into pooled plain buffers, the encryption stage encrypts them into pooled direct
+     * buffers, and the write stage writes all encrypted buffers that are ready with a single gathering
+     * write. The file is synced once, when the pipeline is finished.
+     */
+    private static class EncryptionPipeline {
+        private static final int BUFFER_SIZE = 256 * 1024;
+
+        /** Number of plain and of encrypted buffers, limiting how far the stages can run ahead. */
+        private static final int BUFFER_COUNT = 4;
+
+        /** Interval in which blocked stages check whether another stage failed. */
+        private static final long FAILURE_CHECK_INTERVAL_MS = 100;
+
+        /** Marks the end of the data. It follows the data through all stages. */
+        private static final ByteBuffer END_OF_DATA = ByteBuffer.allocate(0);
+
+        @NonNull
+        private final FileChannel channel;
+
+        @NonNull
+        private final Cipher cipher;
+
+        private final BlockingQueue<ByteBuffer> freePlainBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT);
+        private final BlockingQueue<ByteBuffer> freeEncryptedBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT);
+        private final BlockingQueue<ByteBuffer> plainBuffers = new LinkedBlockingQueue<>();
+        private final BlockingQueue<ByteBuffer> encryptedBuffers = new LinkedBlockingQueue<>();
+
+        @NonNull
+        private final Thread encryptionStage;
+
+        @NonNull
+        private final Thread writeStage;
+
+        /** First error of any stage. Once set, all stages stop. */
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        /** Plain buffer currently filled by {@link #write(byte[])}, only accessed by the caller. */
+        @Nullable
+        private ByteBuffer currentPlainBuffer;
+
+        EncryptionPipeline(@NonNull final FileChannel channel, @NonNull final Cipher cipher) {
+            this.channel = channel;
+            this.cipher = cipher;
+            for (int i = 0; i < BUFFER_COUNT; i++) {
+                freePlainBuffers.add(ByteBuffer.allocate(BUFFER_SIZE));
+                freeEncryptedBuffers.add(ByteBuffer.allocateDirect(BUFFER_SIZE));
+            }
+            encryptionStage = new Thread(() -> runStage(this::encryptBuffers), "AesDataProvider-encrypt");
+            writeStage = new Thread(() -> runStage(this::writeBuffers), "AesDataProvider-write");
+            encryptionStage.start();
+            writeStage.start();
+        }
+
+        /** Copies {@code data} into the pipeline. Only blocks while all plain buffers are in use. */
+        void write(@NonNull final byte[] data) throws IOException {
+            int offset = 0;
+            while (offset < data.length) {
+                if (currentPlainBuffer == null) currentPlainBuffer = take(freePlainBuffers);
+                final int length = Math.min(currentPlainBuffer.remaining(), data.length - offset);
+                currentPlainBuffer.put(data, offset, length);
+                offset += length;
+                if (!currentPlainBuffer.hasRemaining()) {
+                    plainBuffers.add(currentPlainBuffer);
+                    currentPlainBuffer = null;
+                }
+            }
+            throwIfFailed();
+        }
+
+        /** Waits until all data is encrypted and written, then syncs the file to disk. */
+        void finish() throws IOException {
+            if (currentPlainBuffer != null) {
+                plainBuffers.add(currentPlainBuffer);
+                currentPlainBuffer = null;
+            }
+            plainBuffers.add(END_OF_DATA);
+            joinUninterruptibly(encryptionStage);
+            joinUninterruptibly(writeStage);
+            throwIfFailed();
+            channel.force(false);
+        }
+
+        /** Stops all stages without writing the remaining data. */
+        void abort() {
+            failure.compareAndSet(null, new IOException("Writing was aborted."));
+        }
+
+        private void encryptBuffers() throws IOException, GeneralSecurityException {
+            while (true) {
+                final ByteBuffer plain = take(plainBuffers);
+                if (plain == END_OF_DATA) {
+                    encryptedBuffers.add(END_OF_DATA);
+                    return;
+                }
+                final ByteBuffer encrypted = take(freeEncryptedBuffers);
+                plain.flip();
+                encrypted.clear();
+                cipher.update(plain, encrypted);
+                encrypted.flip();
+                plain.clear();
+                freePlainBuffers.add(plain);
+                encryptedBuffers.add(encrypted);
+            }
+        }
+
+        private void writeBuffers() throws IOException {
+            final List<ByteBuffer> batch = new ArrayList<>(BUFFER_COUNT + 1);
+            boolean endOfData = false;
+            while (!endOfData) {
+                batch.add(take(encryptedBuffers));
+                encryptedBuffers.drainTo(batch);
+                // The end marker is always the last buffer the encryption stage hands over.
+                if (batch.get(batch.size() - 1) == END_OF_DATA) {
+                    batch.remove(batch.size() - 1);
+                    endOfData = true;
+                }
+                final ByteBuffer[] buffers = batch.toArray(new ByteBuffer[0]);
+                while (buffers.length > 0 && buffers[buffers.length - 1].hasRemaining()) {
+                    channel.write(buffers);
+                }
+                freeEncryptedBuffers.addAll(batch);
+                batch.clear();
+            }
+        }
+
+        private void runStage(@NonNull final Stage stage) {
+            try {
+                stage.run();
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+        /** Takes the next buffer from {@code queue}, giving up once any stage failed. */
+        @NonNull
+        private ByteBuffer take(@NonNull final BlockingQueue<ByteBuffer> queue) throws IOException {
+            try {
+                while (true) {
+                    throwIfFailed();
+                    final ByteBuffer buffer = queue.poll(FAILURE_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (buffer != null) return buffer;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing encrypted file.");
+            }
+        }
+
+        private void throwIfFailed() throws IOException {
+            final Throwable error = failure.get();
+            if (error != null) throw new IOException("Failed to write encrypted file - " + error.getMessage(), error);
+        }
+
+        private static void joinUninterruptibly(@NonNull final Thread thread) {
+            boolean interrupted = false;
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+
+        private interface Stage {
+            void run() throws IOException, GeneralSecurityException;
+        }
+    }
+
+    /** Everything a single read needs for decrypting, leased from a {@link ReadContextPool}. */
+    private static class ReadContext {
+        @NonNull
+        final RandomAccessFile file;
+
+        /** Channel of {@link #file}, used for positional reads that don't move a shared file pointer. */
+        @NonNull
+        final FileChannel channel;
+
+        @NonNull
+        final Cipher cipher;
+
+        /** Holds the encrypted bytes of a page, outside of the Java heap. */
+        @NonNull
+        final ByteBuffer encryptedData = ByteBuffer.allocateDirect(AesDataProvider.PAGE_SIZE);
+
+        /** Scratch space for the counter IV of the current read. */
+        @NonNull
+        final byte[] iv = new byte[AesDataProvider.IV_SIZE];
+
+        /** Block the cipher's counter currently points to, or -1 if the cipher has to be initialized. */
+        long nextBlock = -1;
+
+        /** Pool generation this context was created in. Contexts of older generations are closed. */
+        int generation;
+
+        ReadContext(@NonNull final RandomAccessFile file, @NonNull final Cipher cipher) {
+            this.file = file;
+            this.channel = file.getChannel();
+            this.cipher = cipher;
+        }
+    }
+
+    /**
+     * Bounded pool of {@link ReadContext}s. Idle contexts are kept in a lock-free queue and a semaphore
+     * limits how many contexts are leased at the same time. Reads only block once all contexts are in
+     * use, which is counted as contention.
+     */
+    private static class ReadContextPool {
+        interface Factory {
+            @NonNull
+            ReadContext create() throws IOException;
+        }
+
+        @NonNull
+        private final Semaphore permits;
+
+        @NonNull
+        private final ConcurrentLinkedQueue<ReadContext> idleContexts = new ConcurrentLinkedQueue<>();
+
+        @NonNull
+        private final Factory factory;
+
+        /** Incremented by {@link #clear()}, so contexts leased at that time are closed once released. */
+        private final AtomicInteger generation = new AtomicInteger();
+
+        private final AtomicLong contentionCount = new AtomicLong();
+        private final AtomicLong waitTimeNanos = new AtomicLong();
+
+        ReadContextPool(final int maxSize, @NonNull final Factory factory) {
+            this.permits = new Semaphore(maxSize);
+            this.factory = factory;
+        }
+
+        /** Leases a context, creating one if no idle context is left. Blocks while all are in use. */
+        @NonNull
+        ReadContext acquire() throws IOException {
+            if (!permits.tryAcquire()) {
+                contentionCount.incrementAndGet();
+                final long waitStart = System.nanoTime();
+                permits.acquireUninterruptibly();
+                waitTimeNanos.addAndGet(System.nanoTime() - waitStart);
+            }
+            final ReadContext idleContext = idleContexts.poll();
+            if (idleContext != null) return idleContext;
+            try {
+                final int currentGeneration = generation.get();
+                final ReadContext context = factory.create();
+                context.generation = currentGeneration;
+                return context;
+            } catch (IOException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /** Returns a context leased with {@link #acquire()} to the pool. */
+        void release(@NonNull final ReadContext context) {
+            if (context.generation == generation.get()) {
+                idleContexts.offer(context);
+                // The pool might have been cleared while the context was added.
+                if (context.generation != generation.get() && idleContexts.remove(context)) {
+                    closeQuietly(context);
+                }
+            } else {
+                closeQuietly(context);
+            }
+            permits.release();
+        }
+
+        /** Closes all idle contexts. Contexts currently leased are closed once they are released. */
+        void clear() throws IOException {
+            generation.incrementAndGet();
+            ReadContext context;
+            while ((context = idleContexts.poll()) != null) {
+                context.file.close();
+            }
+        }
+
+        long getContentionCount() {
+            return contentionCount.get();
+        }
+
+        long getWaitTimeNanos() {
+            return waitTimeNanos.get();
+        }
+
+        private static void closeQuietly(@NonNull final ReadContext context) {
+            try {
+                context.file.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Could not close encrypted file: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Thread-safe LRU cache of decrypted pages, keyed by page index. Invalidating the cache also
+     * prevents pages that were decrypted before the invalidation from being added afterwards.
+     */
+    private static class DecryptedPageCache {
+        @NonNull
+        private final LinkedHashMap<Long, byte[]> pages;
+
+        private final AtomicLong hitCount = new AtomicLong();
+        private final AtomicLong missCount = new AtomicLong();
+
+        private long generation = 0;
+
+        DecryptedPageCache(final int maxPages) {
+            pages = new LinkedHashMap<>(maxPages, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                    return size() > maxPages;
+                }
+            };
+        }
+
+        @Nullable
+        synchronized byte[] get(long pageIndex) {
+            final byte[] page = pages.get(pageIndex);
+            (page != null ? hitCount : missCount).incrementAndGet();
+            return page;
+        }
+
+        /**
+         * Caches {@code page}, unless the cache was invalidated since {@code generation} was
+         * retrieved.
+         */
+        synchronized void put(long pageIndex, @NonNull byte[] page, long generation) {
+            if (generation == this.generation) {
+                pages.put(pageIndex, page);
+            }
+        }
+
+        synchronized long getGeneration() {
+            return generation;
+        }
+
+        synchronized void invalidate() {
+            pages.clear();
+            generation++;
+        }
+
+        /** Drops the page with index {@code firstPageIndex} and all pages after it. */
+        synchronized void invalidateFrom(long firstPageIndex) {
+            pages.keySet().removeIf(pageIndex -> pageIndex >= firstPageIndex);
+            generation++;
+        }
+
+        long getHitCount() {
+            return hitCount.get();
+        }
+
+        long getMissCount() {
+            return missCount.get();
         }
     }
 }
@@ -0,0 +1,98 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.examples.java;
+
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Base64;
+import android.util.Log;
+import android.widget.Toast;
+import androidx.annotation.NonNull;
+import com.pspdfkit.catalog.R;
+import com.pspdfkit.catalog.SdkExample;
+import com.pspdfkit.catalog.examples.java.AesEncryptedFileExample.AesDataProvider;
+import com.pspdfkit.catalog.providers.ChunkedEncryptedContainer;
+import com.pspdfkit.catalog.providers.ChunkedEncryptedDataProvider;
+import com.pspdfkit.catalog.tasks.ExtractAssetTask;
+import com.pspdfkit.configuration.activity.PdfActivityConfiguration;
+import com.pspdfkit.ui.PdfActivityIntentBuilder;
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Opens a document stored in a {@link ChunkedEncryptedContainer}. On first launch, the AES-CTR
+ * encrypted document of the {@link AesEncryptedFileExample} is migrated into the container format.
+ */
+public class ChunkedEncryptedFileExample extends SdkExample {
+
+    private static final String ASSET_FILE_NAME = "A_encrypted.pdf";
+
+    /**
+     * This is 256B AES encryption key stored encoded as BASE64. In production apps this should be
+     * secured!
+     */
+    private static final String BASE64_ENCRYPTION_KEY = "EQQlw3SNbBwbxkSi1jwwib4B4XqesCVDZv9LftsmE1U=";
+
+    public ChunkedEncryptedFileExample(@NonNull Context context) {
+        super(context, R.string.chunkedEncryptionExampleTitle, R.string.chunkedEncryptionExampleDescription);
+    }
+
+    @SuppressLint("CheckResult")
+    @Override
+    public void launchExample(
+            @NonNull final Context context, @NonNull final PdfActivityConfiguration.Builder configuration) {
+        final byte[] key = Base64.decode(BASE64_ENCRYPTION_KEY, Base64.DEFAULT);
+        ExtractAssetTask.extract(ASSET_FILE_NAME, getTitle(), context, encryptedFile -> {
+            // Migrating reads and encrypts the whole document, so it happens in the background.
+            Single.fromCallable(() -> migrate(encryptedFile, key))
+                    .subscribeOn(Schedulers.io())
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe(
+                            containerFile -> {
+                                ChunkedEncryptedDataProvider provider =
+                                        new ChunkedEncryptedDataProvider(containerFile, key);
+                                Intent intent = PdfActivityIntentBuilder.fromDataProvider(context, provider)
+                                        .configuration(configuration.build())
+                                        .build();
+                                context.startActivity(intent);
+                            },
+                            throwable -> {
+                                Log.e(TAG, "Could not migrate encrypted document.", throwable);
+                                Toast.makeText(context, throwable.getMessage(), Toast.LENGTH_LONG)
+                                        .show();
+                            });
+        });
+    }
+
+    /**
+     * Converts an AES-CTR encrypted file into a chunked container next to it, unless that container is
+     * already up to date. The source is read through {@link AesDataProvider}, so only the bytes
+     * committed by its last save are migrated.
+     */
+    @NonNull
+    private static File migrate(@NonNull final File encryptedFile, @NonNull final byte[] key) throws IOException {
+        final File containerFile = new File(encryptedFile.getParentFile(), encryptedFile.getName() + ".chunked");
+        if (containerFile.exists() && containerFile.lastModified() >= encryptedFile.lastModified()) {
+            return containerFile;
+        }
+        final AesDataProvider source = new AesDataProvider(
+                encryptedFile.getAbsolutePath(), key, AesDataProvider.DEFAULT_MAX_CONCURRENT_READS);
+        try {
+            ChunkedEncryptedContainer.encrypt(source, containerFile, key, ChunkedEncryptedContainer.DEFAULT_CHUNK_SIZE);
+        } finally {
+            source.release();
+        }
+        return containerFile;
+    }
+}
@@ -7,10 +7,13 @@
 
 package com.pspdfkit.catalog.examples.java;
 
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
 import android.app.Dialog;
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.widget.ProgressBar;
@@ -20,6 +23,8 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.fragment.app.FragmentActivity;
 import com.pspdfkit.catalog.R;
 import com.pspdfkit.catalog.SdkExample;
+import com.pspdfkit.catalog.tasks.DownloadScheduler;
+import com.pspdfkit.catalog.tasks.SegmentedDownloadSource;
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration;
 import com.pspdfkit.document.download.DownloadJob;
 import com.pspdfkit.document.download.DownloadProgressFragment;
@@ -27,6 +32,8 @@ import com.pspdfkit.document.download.DownloadRequest;
 import com.pspdfkit.document.download.Progress;
 import com.pspdfkit.ui.PdfActivityIntentBuilder;
 import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.util.Locale;
 
 /**
@@ -108,36 +115,48 @@ public class CustomDocumentDownloadExample extends SdkExample {
     public void launchExample(
             @NonNull final Context context, @NonNull final PdfActivityConfiguration.Builder configuration) {
 
-        // Build a download request based on various input parameters.
+        final URL url;
+        try {
+            url = new URL("https://nutrient.io/downloads/case-study-box.pdf");
+        } catch (MalformedURLException e) {
+            Log.e(TAG, "Error while trying to parse the PDF Download URL.", e);
+            return;
+        }
+
+        // Build a download request based on various input parameters. The segmented source downloads the document
+        // over several connections at once, which is faster on links with a high round-trip time.
+        final File downloadFile = new File(context.getCacheDir(), "case-study-box.pdf.download");
         final DownloadRequest request = new DownloadRequest.Builder(context)
-                .uri("https://nutrient.io/downloads/case-study-box.pdf")
+                .source(new SegmentedDownloadSource(url, downloadFile))
                 .outputFile(new File(context.getDir("documents", Context.MODE_PRIVATE), "case-study-box.pdf"))
                 .overwriteExisting(true)
                 .build();
 
-        // This will initiate the download.
-        final DownloadJob job = DownloadJob.startDownload(request);
-        final DownloadProgressFragment fragment = new CustomDownloadProgressFragment();
-        fragment.show(((FragmentActivity) context).getSupportFragmentManager(), "download-fragment");
-        fragment.setJob(job);
-
-        job.setProgressListener(new DownloadJob.ProgressListenerAdapter() {
-            @Override
-            public void onComplete(@NonNull File output) {
-                final Intent intent = PdfActivityIntentBuilder.fromUri(context, Uri.fromFile(output))
-                        .configuration(configuration.build())
-                        .build();
-
-                context.startActivity(intent);
-            }
-
-            @Override
-            public void onError(@NonNull Throwable exception) {
-                new AlertDialog.Builder(context)
-                        .setMessage(
-                                "There was an error downloading the example PDF file. For further information see Logcat.")
-                        .show();
-            }
-        });
+        // The scheduler starts the download right away, since the user is waiting for it. Prefetches wait while downloads
+        // the user waits for are queued or use all of their slots.
+        DownloadScheduler.get(context)
+                .enqueue(request, DownloadScheduler.Priority.INTERACTIVE, new DownloadJob.ProgressListenerAdapter() {
+                    @Override
+                    public void onComplete(@NonNull File output) {
+                        final Intent intent = PdfActivityIntentBuilder.fromUri(context, Uri.fromFile(output))
+                                .configuration(configuration.build())
+                                .build();
+
+                        context.startActivity(intent);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Throwable exception) {
+                        new AlertDialog.Builder(context)
+                                .setMessage(
+                                        "There was an error downloading the example PDF file. For further information see Logcat.")
+                                .show();
+                    }
+                })
+                .whenStarted(job -> {
+                    final DownloadProgressFragment fragment = new CustomDownloadProgressFragment();
+                    fragment.show(((FragmentActivity) context).getSupportFragmentManager(), "download-fragment");
+                    fragment.setJob(job);
+                });
     }
 }
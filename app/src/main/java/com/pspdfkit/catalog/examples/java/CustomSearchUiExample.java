@@ -54,9 +54,11 @@ import androidx.core.graphics.drawable.DrawableCompat;
 import com.pspdfkit.catalog.R;
 import com.pspdfkit.catalog.SdkExample;
 import com.pspdfkit.catalog.utils.OnScrollListenerAdapter;
+import com.pspdfkit.catalog.utils.PageTextCache;
 import com.pspdfkit.catalog.utils.Utils;
 import com.pspdfkit.configuration.PdfConfiguration;
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration;
+import com.pspdfkit.datastructures.Range;
 import com.pspdfkit.document.PdfDocument;
 import com.pspdfkit.document.search.SearchOptions;
 import com.pspdfkit.document.search.SearchResult;
@@ -66,18 +68,25 @@ import com.pspdfkit.ui.PdfFragment;
 import com.pspdfkit.ui.search.PdfSearchViewInline;
 import com.pspdfkit.ui.search.SearchResultHighlighter;
 import com.pspdfkit.utils.Size;
+import com.pspdfkit.utils.TextBlockHelpersKt;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.BackpressureStrategy;
 import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Observable;
 import io.reactivex.rxjava3.core.ObservableSource;
 import io.reactivex.rxjava3.disposables.Disposable;
 import io.reactivex.rxjava3.functions.Supplier;
 import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.text.Normalizer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * This example takes the {@link PdfSearchViewInline} and places it inside a custom layout. To do so
@@ -111,6 +120,7 @@ public class CustomSearchUiExample extends SdkExample {
 
         public static final String EXTRA_URI = "CustomSearchUiExample.DocumentUri";
         private static final PdfConfiguration config = new PdfConfiguration.Builder().build();
+        private static final int SNIPPET_LENGTH = 40;
 
         private PdfFragment fragment;
         private PdfDocument document;
@@ -121,6 +131,14 @@ public class CustomSearchUiExample extends SdkExample {
         @Nullable
         private Disposable currentSearch;
 
+        /** Query of the last completed search, or {@code null} if the results were cleared. */
+        @Nullable
+        private String lastQuery;
+
+        /** Pages the last completed search found results on, in ascending order. */
+        @NonNull
+        private Set<Integer> lastResultPages = new TreeSet<>();
+
         private SearchResultHighlighter highlighter;
 
         private SearchResultAdapter adapter;
@@ -222,7 +240,7 @@ public class CustomSearchUiExample extends SdkExample {
                 }
             });
 
-            searchOptions = new SearchOptions.Builder().snippetLength(40).build();
+            searchOptions = new SearchOptions.Builder().snippetLength(SNIPPET_LENGTH).build();
         }
 
         private void showCouldNotStartExample(String message) {
@@ -285,31 +303,32 @@ public class CustomSearchUiExample extends SdkExample {
                             currentSearch.dispose();
                         }
 
-                        currentSearch = textSearch
-                                .performSearchAsync(newText, searchOptions)
-                                .onErrorResumeNext(throwable -> Flowable.empty())
-                                .toList()
+                        // A query extending the previous one can only match on pages the previous one matched on.
+                        // Searching just those keeps typing fast on large documents, while deleting characters
+                        // or changing the query falls back to searching the whole document.
+                        final Flowable<SearchResult> search = extendsLastQuery(newText)
+                                ? searchPages(newText, lastResultPages)
+                                : textSearch.performSearchAsync(newText, searchOptions);
+
+                        currentSearch = search.toList()
                                 .observeOn(AndroidSchedulers.mainThread())
-                                .subscribe(searchResults -> {
-                                    adapter.setSearchResults(searchResults);
-
-                                    final View emptyView = findViewById(R.id.empty);
-                                    if (emptyView != null && emptyView.getVisibility() != View.INVISIBLE) {
-                                        emptyView.setAlpha(1);
-                                        emptyView
-                                                .animate()
-                                                .alpha(0)
-                                                .setListener(new AnimatorListenerAdapter() {
-                                                    @Override
-                                                    public void onAnimationEnd(Animator animation) {
-                                                        emptyView.animate().setListener(null);
-                                                        emptyView.setVisibility(View.INVISIBLE);
-                                                    }
-                                                })
-                                                .start();
-                                    }
-                                });
+                                .subscribe(
+                                        searchResults -> {
+                                            lastQuery = newText;
+                                            lastResultPages = new TreeSet<>();
+                                            for (SearchResult result : searchResults) {
+                                                lastResultPages.add(result.pageIndex);
+                                            }
+                                            showSearchResults(searchResults);
+                                        },
+                                        throwable -> {
+                                            // Keep the last completed search, a failed one says nothing about
+                                            // which pages a longer query could match on.
+                                            Log.w(TAG, "Searching for \"" + newText + "\" failed.", throwable);
+                                            showSearchResults(Collections.emptyList());
+                                        });
                     } else {
+                        lastQuery = null;
                         final View emptyView = findViewById(R.id.empty);
                         if (emptyView != null && emptyView.getVisibility() != View.VISIBLE) {
                             emptyView.setAlpha(0);
@@ -386,7 +405,8 @@ public class CustomSearchUiExample extends SdkExample {
                         int wordCount = 0;
 
                         for (int i = 0; i < pageCount; i++) {
-                            final String pageText = document.getPageText(i);
+                            // Searches narrowing down their results read the same text, so keep it cached.
+                            final String pageText = PageTextCache.getPageText(document, i);
                             wordCount += pageText.split("\\w").length;
                         }
 
@@ -400,6 +420,85 @@ public class CustomSearchUiExample extends SdkExample {
                     });
         }
 
+        /** Shows {@code searchResults} in the list, fading out the document statistics if they are visible. */
+        private void showSearchResults(@NonNull final List<SearchResult> searchResults) {
+            adapter.setSearchResults(searchResults);
+
+            final View emptyView = findViewById(R.id.empty);
+            if (emptyView != null && emptyView.getVisibility() != View.INVISIBLE) {
+                emptyView.setAlpha(1);
+                emptyView
+                        .animate()
+                        .alpha(0)
+                        .setListener(new AnimatorListenerAdapter() {
+                            @Override
+                            public void onAnimationEnd(Animator animation) {
+                                emptyView.animate().setListener(null);
+                                emptyView.setVisibility(View.INVISIBLE);
+                            }
+                        })
+                        .start();
+            }
+        }
+
+        /** Returns whether {@code query} extends the query of the last completed search, once both are folded. */
+        private boolean extendsLastQuery(@NonNull final String query) {
+            return lastQuery != null
+                    && new FoldedText(query).text.startsWith(new FoldedText(lastQuery).text);
+        }
+
+        /**
+         * Searches the text of {@code pages} for {@code query}, comparing {@link FoldedText folded} text.
+         * This is used for narrowing down previous results, so it takes time proportional to the number
+         * of pages that previously matched, instead of the page count of the document.
+         *
+         * <p>The folding follows the default comparison of the text search, but it's an approximation:
+         * results may differ from searching the whole document for text the two fold differently.
+         */
+        @NonNull
+        private Flowable<SearchResult> searchPages(@NonNull final String query, @NonNull final Set<Integer> pages) {
+            final PdfDocument document = this.document;
+            final String foldedQuery = new FoldedText(query).text;
+            return Flowable.<SearchResult>create(
+                            emitter -> {
+                                if (foldedQuery.isEmpty()) {
+                                    emitter.onComplete();
+                                    return;
+                                }
+                                for (int pageIndex : pages) {
+                                    if (emitter.isCancelled()) return;
+                                    final String pageText = PageTextCache.getPageText(document, pageIndex);
+                                    final FoldedText foldedPage = new FoldedText(pageText);
+                                    final int queryLength = foldedQuery.length();
+                                    for (int match = foldedPage.text.indexOf(foldedQuery);
+                                            match >= 0;
+                                            match = foldedPage.text.indexOf(foldedQuery, match + queryLength)) {
+                                        final int start = foldedPage.sourceIndex[match];
+                                        final int length = foldedPage.sourceIndex[match + queryLength - 1] + 1 - start;
+                                        emitter.onNext(new SearchResult(
+                                                pageIndex,
+                                                TextBlockHelpersKt.createTextBlock(
+                                                        document, pageIndex, new Range(start, length)),
+                                                createSnippet(pageText, start, length)));
+                                    }
+                                }
+                                emitter.onComplete();
+                            },
+                            BackpressureStrategy.BUFFER)
+                    .subscribeOn(Schedulers.computation());
+        }
+
+        /** Creates a snippet of {@link #SNIPPET_LENGTH} characters around a match, like the text search does. */
+        @NonNull
+        private static SearchResult.Snippet createSnippet(
+                @NonNull final String pageText, final int matchStart, final int matchLength) {
+            final int snippetStart = Math.max(0, matchStart - Math.max(0, SNIPPET_LENGTH - matchLength) / 2);
+            final int snippetEnd = Math.min(pageText.length(), snippetStart + Math.max(SNIPPET_LENGTH, matchLength));
+            return new SearchResult.Snippet(
+                    pageText.substring(snippetStart, snippetEnd).replace('\n', ' '),
+                    new Range(matchStart - snippetStart, matchLength));
+        }
+
         /** Marks the search result at {@code searchResultIndex} as selected. */
         private void selectSearchResultAtIndex(@IntRange(from = 0) final int searchResultIndex) {
             if (searchResultIndex < 0 || searchResultIndex >= currentSearchResults.size()) {
@@ -491,6 +590,84 @@ public class CustomSearchUiExample extends SdkExample {
                     listViewContainer, screenWidth / 2, 0, startRadius, endRadius);
         }
 
+        /**
+         * Text folded the way the text search compares it by default: ignoring case, diacritics and
+         * ligatures, treating any run of whitespace and line breaks as a single space, joining words
+         * hyphenated at the end of a line, and treating typographic quotes and dashes like their ASCII
+         * counterparts.
+         */
+        private static final class FoldedText {
+            /** The folded text. */
+            @NonNull
+            final String text;
+
+            /** Index in the original text of every character in {@link #text}. */
+            @NonNull
+            final int[] sourceIndex;
+
+            FoldedText(@NonNull final String source) {
+                final StringBuilder folded = new StringBuilder(source.length());
+                int[] indices = new int[source.length()];
+                int length = 0;
+                for (int i = 0; i < source.length(); i++) {
+                    final char c = source.charAt(i);
+                    if (c == '\u00AD') continue;
+                    if (c == '-' && isFollowedByLineBreak(source, i + 1)) {
+                        // Skip the hyphen and the line break, so the word reads as if it wasn't broken.
+                        while (i + 1 < source.length() && Character.isWhitespace(source.charAt(i + 1))) i++;
+                        continue;
+                    }
+                    if (Character.isWhitespace(c)) {
+                        if (length > 0 && folded.charAt(length - 1) == ' ') continue;
+                        if (length == indices.length) indices = Arrays.copyOf(indices, length * 2 + 1);
+                        folded.append(' ');
+                        indices[length++] = i;
+                        continue;
+                    }
+                    final String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFKD);
+                    for (int j = 0; j < decomposed.length(); j++) {
+                        final char d = decomposed.charAt(j);
+                        if (Character.getType(d) == Character.NON_SPACING_MARK) continue;
+                        if (length == indices.length) indices = Arrays.copyOf(indices, length * 2 + 1);
+                        folded.append(fold(d));
+                        indices[length++] = i;
+                    }
+                }
+                text = folded.toString();
+                sourceIndex = Arrays.copyOf(indices, length);
+            }
+
+            private static boolean isFollowedByLineBreak(@NonNull final String source, int index) {
+                while (index < source.length() && (source.charAt(index) == ' ' || source.charAt(index) == '\t')) {
+                    index++;
+                }
+                return index < source.length() && (source.charAt(index) == '\n' || source.charAt(index) == '\r');
+            }
+
+            private static char fold(final char c) {
+                switch (c) {
+                    case '\u2018':
+                    case '\u2019':
+                    case '\u201A':
+                    case '\u201B':
+                        return '\'';
+                    case '\u201C':
+                    case '\u201D':
+                    case '\u201E':
+                    case '\u201F':
+                        return '"';
+                    case '\u2010':
+                    case '\u2011':
+                    case '\u2012':
+                    case '\u2013':
+                    case '\u2014':
+                        return '-';
+                    default:
+                        return Character.toLowerCase(Character.toUpperCase(c));
+                }
+            }
+        }
+
         private static class ViewHolder {
             @NonNull
             public static ViewHolder get(View view, ViewGroup parent) {
@@ -32,11 +32,12 @@ import androidx.annotation.UiThread;
 import androidx.appcompat.app.AlertDialog;
 import com.pspdfkit.catalog.R;
 import com.pspdfkit.catalog.SdkExample;
+import com.pspdfkit.catalog.providers.MappedAssetDataProvider;
+import com.pspdfkit.catalog.utils.PageTextCache;
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration;
 import com.pspdfkit.datastructures.Range;
 import com.pspdfkit.datastructures.TextBlock;
 import com.pspdfkit.document.PdfDocument;
-import com.pspdfkit.document.providers.AssetDataProvider;
 import com.pspdfkit.ui.PdfActivity;
 import com.pspdfkit.ui.PdfActivityIntentBuilder;
 import com.pspdfkit.ui.PdfFragment;
@@ -70,7 +71,8 @@ public class ScreenReaderExample extends SdkExample {
         // Simply loads a document from the assets. The actual screen reading is performed by the
         // activity.
         // Launch the custom example activity using the document and configuration.
-        final Intent intent = PdfActivityIntentBuilder.fromDataProvider(context, new AssetDataProvider(WELCOME_DOC))
+        final Intent intent = PdfActivityIntentBuilder.fromDataProvider(
+                        context, MappedAssetDataProvider.forAsset(context, WELCOME_DOC))
                 .configuration(configuration.build())
                 .activityClass(ScreenReaderExampleActivity.class)
                 .build();
@@ -379,7 +381,7 @@ public class ScreenReaderExample extends SdkExample {
                         // This example uses a BreakIterator to speak and highlight whole sentences.
                         // It requires the document locale, to correctly find sentences.
                         final BreakIterator iterator = BreakIterator.getSentenceInstance(Locale.US);
-                        iterator.setText(document.getPageText(pageIndex));
+                        iterator.setText(PageTextCache.getPageText(document, pageIndex));
 
                         // Split the text into sentences and store each sentence as a readable Unit.
                         int start = iterator.first();
@@ -6,19 +6,31 @@
  */
 package com.pspdfkit.catalog.examples.kotlin
 
+import android.app.Activity
+import android.app.Application
 import android.content.Context
+import android.content.Intent
 import android.net.Uri
+import android.os.Bundle
+import androidx.annotation.MainThread
 import androidx.annotation.StringRes
 import com.pspdfkit.catalog.SdkExample
+import com.pspdfkit.catalog.providers.MappedAssetDataProvider
+import com.pspdfkit.catalog.tasks.AssetStore
 import com.pspdfkit.catalog.tasks.ExtractAssetTask
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.ui.PdfActivity
+import com.pspdfkit.ui.PdfActivityIntentBuilder
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers
+import io.reactivex.rxjava3.disposables.CompositeDisposable
 
 /**
  * Opens the [PdfActivity] for viewing a PDF stored within the app's asset folder.
  */
 abstract class AssetExample(context: Context, @StringRes titleRes: Int, @StringRes descriptionRes: Int) :
     SdkExample(context, titleRes, descriptionRes) {
+    private val disposables = CompositeDisposable()
+
     /**
      * Gets the path to the asset that we want to display.
      * @return The path to the asset
@@ -26,6 +38,14 @@ abstract class AssetExample(context: Context, @StringRes titleRes: Int, @StringR
     protected open val assetPath: String
         get() = WELCOME_DOC
 
+    /**
+     * Whether the document is read straight from the APK through a [MappedAssetDataProvider] when
+     * autosave is disabled, instead of from an extracted file. Examples opt in once they were checked
+     * with a document backed by a data provider.
+     */
+    protected open val readFromApk: Boolean
+        get() = false
+
     /**
      * Allows subclasses to adjust the configuration before displaying the document.
      * @param configuration The configuration that will be used to display the document.
@@ -39,13 +59,99 @@ abstract class AssetExample(context: Context, @StringRes titleRes: Int, @StringR
         // Let example subclasses make changes to the configuration before launching the example.
         prepareConfiguration(configuration)
 
+        val builtConfiguration = configuration.build()
+        if (!builtConfiguration.configuration.isAutosaveEnabled) {
+            // Without autosave the document is never written. Uncompressed assets can then be read
+            // directly from the APK, without extracting them at all.
+            val mappedProvider = if (readFromApk) MappedAssetDataProvider.create(context, assetPath) else null
+            if (mappedProvider != null) {
+                val intent =
+                    PdfActivityIntentBuilder
+                        .fromDataProvider(context, mappedProvider)
+                        .configuration(builtConfiguration)
+                        .build()
+                context.startActivity(intent)
+                return
+            }
+
+            // Other assets are read from the single copy shared with all other read-only examples.
+            disposables.add(
+                ExtractAssetTask.extractSharedAsync(assetPath, context)
+                    .observeOn(AndroidSchedulers.mainThread())
+                    .subscribe { lease ->
+                        val intent =
+                            PdfActivityIntentBuilder
+                                .fromUri(context, Uri.fromFile(lease.file))
+                                .configuration(builtConfiguration)
+                                .build()
+                        ViewerLeases.startActivity(context, intent, lease)
+                    },
+            )
+            return
+        }
+
         // Extract the document to the Catalog's private files, so that examples can freely modify the file.
         // Since Nutrient does not directly read documents from the assets, we extract them
         // to the internal device storage using a custom AsyncTask implementation.
         ExtractAssetTask.extract(assetPath, title, context) { documentFile ->
             // Now, as the documentFile is sitting in the internal device storage, we can
             // start the PdfActivity by passing it the Uri of the file.
-            PdfActivity.showDocument(context, Uri.fromFile(documentFile), configuration.build())
+            PdfActivity.showDocument(context, Uri.fromFile(documentFile), builtConfiguration)
+        }
+    }
+
+    override fun onDestroy() {
+        super.onDestroy()
+        disposables.clear()
+    }
+}
+
+/**
+ * Holds the leases of shared assets while the viewers showing them are open. Each lease is closed once
+ * the activity it was started with finishes, so the asset store can prune the blob again.
+ */
+private object ViewerLeases : Application.ActivityLifecycleCallbacks {
+    private const val EXTRA_LEASE_ID = "AssetExample.SharedAssetLeaseId"
+
+    private val leases = HashMap<Long, AssetStore.Lease>()
+    private var nextLeaseId = 0L
+    private var registered = false
+
+    /** Starts the activity of [intent], holding [lease] until that activity finishes. */
+    @MainThread
+    fun startActivity(context: Context, intent: Intent, lease: AssetStore.Lease) {
+        if (!registered) {
+            (context.applicationContext as Application).registerActivityLifecycleCallbacks(this)
+            registered = true
         }
+        val leaseId = nextLeaseId++
+        intent.putExtra(EXTRA_LEASE_ID, leaseId)
+        leases[leaseId] = lease
+        try {
+            context.startActivity(intent)
+        } catch (e: RuntimeException) {
+            leases.remove(leaseId)
+            lease.close()
+            throw e
+        }
+    }
+
+    override fun onActivityDestroyed(activity: Activity) {
+        // Activities recreated after a configuration change keep showing the same file.
+        if (!activity.isFinishing) return
+        val leaseId = activity.intent?.getLongExtra(EXTRA_LEASE_ID, -1L) ?: return
+        leases.remove(leaseId)?.close()
     }
+
+    override fun onActivityCreated(activity: Activity, savedInstanceState: Bundle?) = Unit
+
+    override fun onActivityStarted(activity: Activity) = Unit
+
+    override fun onActivityResumed(activity: Activity) = Unit
+
+    override fun onActivityPaused(activity: Activity) = Unit
+
+    override fun onActivityStopped(activity: Activity) = Unit
+
+    override fun onActivitySaveInstanceState(activity: Activity, outState: Bundle) = Unit
 }
@@ -11,16 +11,23 @@ import android.content.Context
 import android.content.res.Resources
 import android.os.Parcel
 import android.os.Parcelable
+import android.util.Log
 import androidx.annotation.RawRes
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
+import com.pspdfkit.catalog.SdkExample.Companion.TAG
+import com.pspdfkit.catalog.providers.WindowedInputStreamDataProvider
+import com.pspdfkit.catalog.utils.StringUtils
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.document.providers.DataProvider
-import com.pspdfkit.document.providers.InputStreamDataProvider
 import com.pspdfkit.ui.PdfActivity
 import com.pspdfkit.ui.PdfActivityIntentBuilder
 import java.io.IOException
 import java.io.InputStream
+import java.io.RandomAccessFile
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * This example shows how to create a custom data provider that reads a document from the `raw` resources
@@ -29,8 +36,11 @@ import java.io.InputStream
 class CustomDataProviderExample(context: Context) :
     SdkExample(context, R.string.customDataProviderExampleTitle, R.string.customDataProviderExampleDescription) {
     override fun launchExample(context: Context, configuration: PdfActivityConfiguration.Builder) {
-        // Create an instance of the custom data provider. See the implementation details below.
-        val dataProvider: DataProvider = RawResourceDataProvider(R.raw.guide)
+        // Create an instance of the custom data provider. See the implementation details below. Uncompressed resources
+        // are read with random access, so jumping around in the document never re-reads it from the start. Compressed
+        // resources can only be streamed.
+        val dataProvider: DataProvider =
+            SeekableRawResourceDataProvider.create(context, R.raw.guide) ?: RawResourceDataProvider(R.raw.guide)
 
         // Start the activity using our custom data provider.
         val intent =
@@ -45,12 +55,13 @@ class CustomDataProviderExample(context: Context) :
 /**
  * Custom data provider for loading a PDF document from the app's raw resources. Since
  * [Resources.openRawResource] returns an `InputStream`, this provider derives from
- * `InputStreamDataProvider` which handles loading data from a stream object.
+ * [WindowedInputStreamDataProvider] which handles loading data from a stream object, keeping recently read parts of
+ * the document in memory so going back doesn't have to reopen the stream.
  *
  * @param resId The id of the PDF document inside the resources (stored within the `res/raw` folder of the application).
  */
 class RawResourceDataProvider(@param:RawRes private val resId: Int) :
-    InputStreamDataProvider(),
+    WindowedInputStreamDataProvider(),
     Parcelable {
     /**
      * The size of the raw resource. This will be cached after the first call to [.getSize].
@@ -58,7 +69,7 @@ class RawResourceDataProvider(@param:RawRes private val resId: Int) :
     private var size = DataProvider.FILE_SIZE_UNKNOWN.toLong()
 
     /**
-     * We return the InputStream for the referenced raw resource. Since InputStreamDataProvider may call this
+     * We return the InputStream for the referenced raw resource. Since WindowedInputStreamDataProvider may call this
      * method multiple times we have to make sure that it always returns a fresh input stream object.
      */
     @Throws(IOException::class)
@@ -125,3 +136,101 @@ class RawResourceDataProvider(@param:RawRes private val resId: Int) :
         override fun newArray(size: Int): Array<RawResourceDataProvider?> = arrayOfNulls(size)
     }
 }
+
+/**
+ * Custom data provider for loading a PDF document from the app's raw resources with random access. Unlike
+ * [RawResourceDataProvider], it never has to reopen the resource and skip forward to serve a read before the current
+ * stream position: [Resources.openRawResourceFd] tells where the resource is stored inside the APK and how long it is,
+ * and every read is a positional [FileChannel] read of that region. Since positional reads don't share a stream
+ * position, reads may also happen concurrently.
+ *
+ * This only works for resources stored uncompressed (see `noCompress` in the app's build file). Use [create] to find
+ * out whether a resource can be read this way.
+ */
+class SeekableRawResourceDataProvider private constructor(
+    @param:RawRes private val resId: Int,
+    /** Path of the APK holding the resource. */
+    private val apkPath: String,
+    /** Absolute offset of the resource inside the APK. */
+    private val startOffset: Long,
+    /** Exact length of the resource, as reported by its [android.content.res.AssetFileDescriptor]. */
+    private val length: Long,
+) : DataProvider,
+    Parcelable {
+    /** Channel of the APK, opened on first read since the provider is created on the main thread. */
+    @Volatile
+    private var channel: FileChannel? = null
+
+    private val readCount = AtomicLong()
+    private val bytesRead = AtomicLong()
+
+    override fun read(size: Long, offset: Long): ByteArray {
+        if (offset < 0 || offset >= length) return ByteArray(0)
+        return try {
+            val data = ByteBuffer.allocate(minOf(size, length - offset).toInt())
+            val channel = openChannel()
+            while (data.hasRemaining()) {
+                if (channel.read(data, startOffset + offset + data.position()) < 0) break
+            }
+            readCount.incrementAndGet()
+            bytesRead.addAndGet(data.position().toLong())
+            if (data.hasRemaining()) data.array().copyOf(data.position()) else data.array()
+        } catch (e: IOException) {
+            Log.e(TAG, "Could not read raw resource $resId: ${e.message}", e)
+            ByteArray(0)
+        }
+    }
+
+    private fun openChannel(): FileChannel =
+        channel ?: synchronized(this) {
+            channel ?: RandomAccessFile(apkPath, "r").channel.also { channel = it }
+        }
+
+    override fun getSize(): Long = length
+
+    /** The APK path changes with every app update, so cached renderings never outlive the resource. */
+    override fun getUid(): String = StringUtils.sha1("$apkPath:$resId")
+
+    override fun getTitle(): String = "PSPDFKit Quickstart Guide"
+
+    override fun release() {
+        synchronized(this) {
+            channel?.close()
+            channel = null
+        }
+        // Every read only touched the requested range of the resource, no matter where the previous read ended.
+        Log.d(TAG, "Served ${readCount.get()} reads by reading ${bytesRead.get()} bytes of the $length byte resource.")
+    }
+
+    override fun describeContents(): Int = 0
+
+    override fun writeToParcel(dest: Parcel, flags: Int) {
+        dest.writeInt(resId)
+        dest.writeString(apkPath)
+        dest.writeLong(startOffset)
+        dest.writeLong(length)
+    }
+
+    private constructor(input: Parcel) : this(input.readInt(), input.readString()!!, input.readLong(), input.readLong())
+
+    companion object CREATOR : Parcelable.Creator<SeekableRawResourceDataProvider> {
+        /**
+         * Creates a provider for the raw resource [resId].
+         *
+         * @return The provider, or `null` if the resource is stored compressed and can't be read with random access.
+         */
+        fun create(context: Context, @RawRes resId: Int): SeekableRawResourceDataProvider? =
+            try {
+                context.resources.openRawResourceFd(resId).use { descriptor ->
+                    SeekableRawResourceDataProvider(resId, context.applicationInfo.sourceDir, descriptor.startOffset, descriptor.length)
+                }
+            } catch (e: Resources.NotFoundException) {
+                // The resource is compressed, so it has no contiguous region inside the APK.
+                null
+            }
+
+        override fun createFromParcel(parcel: Parcel): SeekableRawResourceDataProvider = SeekableRawResourceDataProvider(parcel)
+
+        override fun newArray(size: Int): Array<SeekableRawResourceDataProvider?> = arrayOfNulls(size)
+    }
+}
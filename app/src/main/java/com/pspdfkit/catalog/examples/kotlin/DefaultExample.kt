@@ -13,4 +13,7 @@ import com.pspdfkit.ui.PdfActivity
 /**
  * Opens the [PdfActivity] for viewing a PDF stored within the app's asset folder.
  */
-class DefaultExample(context: Context) : AssetExample(context, R.string.defaultExampleTitle, R.string.defaultExampleDescription)
+class DefaultExample(context: Context) : AssetExample(context, R.string.defaultExampleTitle, R.string.defaultExampleDescription) {
+    override val readFromApk: Boolean
+        get() = true
+}
@@ -15,19 +15,29 @@ import androidx.fragment.app.FragmentActivity
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
 import com.pspdfkit.catalog.SdkExample.Companion.TAG
+import com.pspdfkit.catalog.network.CatalogHttpClient
+import com.pspdfkit.catalog.tasks.DownloadScheduler
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.document.download.DownloadJob
 import com.pspdfkit.document.download.DownloadProgressFragment
 import com.pspdfkit.document.download.DownloadRequest
 import com.pspdfkit.document.download.source.DownloadSource
 import com.pspdfkit.ui.PdfActivityIntentBuilder
+import okhttp3.Request
+import okhttp3.Response
+import java.io.DataInputStream
+import java.io.DataOutputStream
 import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.FilterInputStream
 import java.io.IOException
 import java.io.InputStream
+import java.io.RandomAccessFile
+import java.io.SequenceInputStream
 import java.net.HttpURLConnection
 import java.net.MalformedURLException
 import java.net.URL
-import java.net.URLConnection
 
 /**
  * This is an example showing how to use the [DownloadJob] to download a PDF document from the web.
@@ -35,16 +45,22 @@ import java.net.URLConnection
 class DocumentDownloadExample(context: Context) :
     SdkExample(context, R.string.documentDownloadExampleTitle, R.string.documentDownloadExampleDescription) {
     override fun launchExample(context: Context, configuration: PdfActivityConfiguration.Builder) {
-        // The web download source is a custom DownloadSource implemented below.
-        val source: WebDownloadSource =
+        val url =
             try {
                 // Try to parse the URL pointing to the PDF document. If an error occurs, log it and leave the example.
-                WebDownloadSource(URL("https://nutrient.io/downloads/case-study-box.pdf"))
+                URL("https://nutrient.io/downloads/case-study-box.pdf")
             } catch (e: MalformedURLException) {
                 Log.e(TAG, "Error while trying to parse the PDF Download URL.", e)
                 return
             }
 
+        // The web download source is a custom DownloadSource implemented below. Bytes received by a failed attempt are
+        // kept in the part file, so retrying only downloads the rest of the document.
+        val partFile = File(context.cacheDir, "case-study-box.pdf.part")
+        startDownload(context, configuration, WebDownloadSource(url, partFile))
+    }
+
+    private fun startDownload(context: Context, configuration: PdfActivityConfiguration.Builder, source: WebDownloadSource) {
         // Build a download request based on various input parameters. Provide the web source pointing to the document.
         val request =
             DownloadRequest
@@ -54,70 +70,252 @@ class DocumentDownloadExample(context: Context) :
                 .overwriteExisting(true)
                 .build()
 
-        // This will initiate the download.
-        val job = DownloadJob.startDownload(request)
-        job.setProgressListener(
-            object : DownloadJob.ProgressListenerAdapter() {
-                override fun onComplete(output: File) {
-                    val intent =
-                        PdfActivityIntentBuilder
-                            .fromUri(context, Uri.fromFile(output))
-                            .configuration(configuration.build())
-                            .build()
-                    context.startActivity(intent)
-                }
+        // The scheduler starts the download right away, since the user is waiting for it. Prefetches wait while downloads
+        // the user waits for are queued or use all of their slots.
+        DownloadScheduler
+            .get(context)
+            .enqueue(
+                request,
+                DownloadScheduler.Priority.INTERACTIVE,
+                object : DownloadJob.ProgressListenerAdapter() {
+                    override fun onComplete(output: File) {
+                        CatalogHttpClient.hostMetrics().forEach { Log.d(TAG, "Connections to $it") }
+                        val intent =
+                            PdfActivityIntentBuilder
+                                .fromUri(context, Uri.fromFile(output))
+                                .configuration(configuration.build())
+                                .build()
+                        context.startActivity(intent)
+                    }
 
-                override fun onError(exception: Throwable) {
-                    AlertDialog
-                        .Builder(context)
-                        .setMessage("There was an error downloading the example PDF file. For further information see Logcat.")
-                        .show()
-                }
-            },
-        )
-
-        val fragment = DownloadProgressFragment()
-        fragment.show((context as FragmentActivity).supportFragmentManager, "download-fragment")
-        fragment.job = job
+                    override fun onError(exception: Throwable) {
+                        AlertDialog
+                            .Builder(context)
+                            .setMessage("There was an error downloading the example PDF file. For further information see Logcat.")
+                            .setPositiveButton("Retry") { _, _ -> startDownload(context, configuration, source) }
+                            .setNegativeButton(android.R.string.cancel, null)
+                            .show()
+                    }
+                },
+            ).whenStarted { job ->
+                val fragment = DownloadProgressFragment()
+                fragment.show((context as FragmentActivity).supportFragmentManager, "download-fragment")
+                fragment.job = job
+            }
     }
 }
 
 /**
- * This download source can be used to download a PDF document from the web.
+ * This download source can be used to download a PDF document from the web. Interrupted downloads are resumed: every
+ * received byte is also written to [partFile], and the next attempt only requests the missing bytes with a `Range`
+ * request. `If-Range` makes sure the server sends the whole document instead, if it changed in the meantime.
+ *
+ * @param partFile Holds the bytes received so far. Its metadata is stored next to it, with a `.meta` suffix.
  */
-private class WebDownloadSource constructor(private val documentURL: URL) : DownloadSource {
+private class WebDownloadSource(
+    private val documentURL: URL,
+    private val partFile: File,
+) : DownloadSource {
+    private val metadataFile = File(partFile.path + ".meta")
+
     /**
-     * The open method needs to return an [InputStream] that will provide the complete document.
+     * The open method needs to return an [InputStream] that will provide the complete document. When resuming, the
+     * stream replays the bytes received before, followed by the rest of the document from the server.
      */
     @Throws(IOException::class)
     override fun open(): InputStream {
-        val connection = documentURL.openConnection() as HttpURLConnection
-        connection.connect()
-        return connection.inputStream
+        val metadata = PartMetadata.read(metadataFile)
+        // Only bytes covered by the metadata are known to be synced to storage.
+        val resumeFrom = if (metadata?.ifRangeValidator != null) minOf(metadata.receivedBytes, partFile.length()) else 0L
+
+        val request =
+            Request
+                .Builder()
+                .url(documentURL)
+                // Ranges refer to the document's bytes, so the response must not be compressed.
+                .header("Accept-Encoding", "identity")
+        if (resumeFrom > 0) {
+            request.header("Range", "bytes=$resumeFrom-")
+            request.header("If-Range", metadata!!.ifRangeValidator!!)
+        }
+        val response = CatalogHttpClient.client.newCall(request.build()).execute()
+
+        val receivedBytes: Long
+        val totalBytes: Long
+        when (val status = response.code) {
+            HttpURLConnection.HTTP_PARTIAL -> {
+                val contentRange = response.header("Content-Range").orEmpty()
+                if (!contentRange.startsWith("bytes $resumeFrom-")) {
+                    response.close()
+                    throw IOException("Server sent an unexpected range: $contentRange")
+                }
+                receivedBytes = resumeFrom
+                totalBytes = contentRange.substringAfterLast('/').toLongOrNull() ?: DownloadSource.UNKNOWN_DOWNLOAD_SIZE
+                Log.i(TAG, "Resuming download of $documentURL at $resumeFrom bytes.")
+            }
+            HttpURLConnection.HTTP_OK -> {
+                // Either this is the first attempt, or the document changed and has to be downloaded again.
+                receivedBytes = 0
+                totalBytes = response.body!!.contentLength()
+            }
+            HTTP_RANGE_NOT_SATISFIABLE -> {
+                response.close()
+                if (resumeFrom == 0L) throw IOException("Download failed with HTTP status $status")
+                // The range starts at the end of the document, so the part file already holds all of it.
+                if (resumeFrom == metadata?.totalBytes) return finish(FileInputStream(partFile))
+                deletePartialDownload()
+                return open()
+            }
+            else -> {
+                response.close()
+                throw IOException("Download failed with HTTP status $status")
+            }
+        }
+
+        val partMetadata =
+            if (receivedBytes > 0) {
+                // The part file may hold fewer bytes than the metadata recorded, and resuming started where it ends.
+                metadata!!.copy(receivedBytes = receivedBytes, totalBytes = totalBytes)
+            } else {
+                PartMetadata(response.header("ETag"), response.header("Last-Modified"), 0, totalBytes)
+            }
+        RandomAccessFile(partFile, "rw").use { it.setLength(receivedBytes) }
+        partMetadata.write(metadataFile)
+
+        val received = RecordingInputStream(response, FileOutputStream(partFile, true), partMetadata)
+        return if (receivedBytes > 0) SequenceInputStream(FileInputStream(partFile), received) else received
     }
 
     /**
      * If the length is available it can be returned here. This is optional, and can improve the reported download progress, since it will then contain
      * a percentage of download.
+     *
+     * The shared client reuses the length of an earlier response for the document. Otherwise it asks the server with a
+     * `HEAD` request, whose connection is then reused by the download.
      */
     override fun getLength(): Long {
-        var length = DownloadSource.UNKNOWN_DOWNLOAD_SIZE
-
-        // We try to estimate the download size using the content length header.
-        var urlConnection: URLConnection? = null
-        try {
-            urlConnection = documentURL.openConnection()
-            val contentLength = urlConnection.contentLength
-            if (contentLength != -1) {
-                length = contentLength.toLong()
+        val length = CatalogHttpClient.contentLength(documentURL)
+        return if (length >= 0) length else DownloadSource.UNKNOWN_DOWNLOAD_SIZE
+    }
+
+    override fun toString(): String = "WebDownloadSource{documentURL=$documentURL}"
+
+    private fun deletePartialDownload() {
+        partFile.delete()
+        metadataFile.delete()
+    }
+
+    /** Deletes the partial download once [input] was read completely, since the download job then has the document. */
+    private fun finish(input: InputStream): InputStream =
+        object : FilterInputStream(input) {
+            override fun close() {
+                super.close()
+                deletePartialDownload()
             }
-        } catch (e: IOException) {
-            Log.e(TAG, "Error while trying to parse the PDF Download URL.", e)
-        } finally {
-            (urlConnection as? HttpURLConnection)?.disconnect()
         }
-        return length
+
+    /**
+     * Passes the server's response through, appending every byte to the part file. The part file is synced and its
+     * metadata updated every [SYNC_INTERVAL] bytes, and when the stream is closed.
+     */
+    private inner class RecordingInputStream(
+        private val response: Response,
+        private val output: FileOutputStream,
+        private var metadata: PartMetadata,
+    ) : FilterInputStream(response.body!!.byteStream()) {
+        private var receivedBytes = metadata.receivedBytes
+        private var unsyncedBytes = 0L
+        private var complete = false
+
+        override fun read(): Int {
+            val byte = super.read()
+            if (byte >= 0) record(byteArrayOf(byte.toByte()), 0, 1) else complete = true
+            return byte
+        }
+
+        override fun read(buffer: ByteArray, offset: Int, length: Int): Int {
+            val count = super.read(buffer, offset, length)
+            if (count > 0) record(buffer, offset, count) else if (count < 0) complete = true
+            return count
+        }
+
+        override fun skip(count: Long): Long {
+            // Skipped bytes would be missing from the part file, so read them instead.
+            val buffer = ByteArray(minOf(count, 8192L).toInt())
+            val read = read(buffer, 0, buffer.size)
+            return maxOf(read, 0).toLong()
+        }
+
+        private fun record(buffer: ByteArray, offset: Int, count: Int) {
+            output.write(buffer, offset, count)
+            receivedBytes += count
+            unsyncedBytes += count
+            if (unsyncedBytes >= SYNC_INTERVAL) sync()
+        }
+
+        private fun sync() {
+            output.fd.sync()
+            metadata = metadata.copy(receivedBytes = receivedBytes)
+            metadata.write(metadataFile)
+            unsyncedBytes = 0
+        }
+
+        override fun close() {
+            try {
+                super.close()
+                sync()
+            } finally {
+                output.close()
+                response.close()
+            }
+            if (complete && (metadata.totalBytes < 0 || receivedBytes == metadata.totalBytes)) deletePartialDownload()
+        }
     }
 
-    override fun toString(): String = "WebDownloadSource{documentURL=$documentURL}"
+    /** What is known about the partial download. */
+    private data class PartMetadata(
+        val etag: String?,
+        val lastModified: String?,
+        val receivedBytes: Long,
+        val totalBytes: Long,
+    ) {
+        /** Validator for `If-Range`. Weak ETags can't be used there, and without any validator the download can't resume. */
+        val ifRangeValidator: String?
+            get() = etag?.takeUnless { it.startsWith("W/") } ?: lastModified
+
+        fun write(file: File) {
+            val temporaryFile = File(file.path + ".tmp")
+            FileOutputStream(temporaryFile).use { output ->
+                val data = DataOutputStream(output)
+                data.writeUTF(etag.orEmpty())
+                data.writeUTF(lastModified.orEmpty())
+                data.writeLong(receivedBytes)
+                data.writeLong(totalBytes)
+                data.flush()
+                output.fd.sync()
+            }
+            if (!temporaryFile.renameTo(file)) throw IOException("Could not replace $file")
+        }
+
+        companion object {
+            fun read(file: File): PartMetadata? =
+                try {
+                    DataInputStream(FileInputStream(file)).use { input ->
+                        PartMetadata(
+                            input.readUTF().ifEmpty { null },
+                            input.readUTF().ifEmpty { null },
+                            input.readLong(),
+                            input.readLong(),
+                        )
+                    }
+                } catch (e: IOException) {
+                    null
+                }
+        }
+    }
+
+    companion object {
+        private const val HTTP_RANGE_NOT_SATISFIABLE = 416
+        private const val SYNC_INTERVAL = 1024L * 1024
+    }
 }
@@ -7,6 +7,7 @@
 
 package com.pspdfkit.catalog.examples.kotlin
 
+import android.annotation.SuppressLint
 import android.content.Context
 import android.content.Intent
 import android.net.Uri
@@ -64,6 +65,8 @@ import androidx.core.net.toUri
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
 import com.pspdfkit.catalog.SdkExample.Companion.WELCOME_DOC
+import com.pspdfkit.catalog.tasks.ExtractAssetTask
+import com.pspdfkit.catalog.tasks.ExtractAssetTask.AssetRequest
 import com.pspdfkit.catalog.ui.theming.CatalogTheme
 import com.pspdfkit.compose.theme.MainToolbarColors
 import com.pspdfkit.compose.theme.ToolbarPopupColors
@@ -81,6 +84,7 @@ import com.pspdfkit.jetpack.compose.interactors.rememberDocumentState
 import com.pspdfkit.jetpack.compose.views.DocumentView
 import com.pspdfkit.ui.toolbar.ContextualToolbar
 import com.pspdfkit.ui.toolbar.ToolbarCoordinatorLayout
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers
 import kotlinx.coroutines.launch
 import java.io.File
 import java.lang.ref.WeakReference
@@ -435,31 +439,21 @@ private fun createCustomUiColors() = getUiColors().copy(
  */
 object FileUtils {
     /**
-     * Copies files from assets to local storage
+     * Copies files from assets to local storage. All files are copied in parallel on background threads.
      *
      * @param context Android context
      * @param fileNames List of filenames to copy
-     * @param onComplete Callback to run after copying completes
+     * @param onComplete Callback to run on the main thread after copying completes
      */
+    @SuppressLint("CheckResult")
     fun copyFilesFromAssetsToLocalStorage(context: Context, fileNames: List<String>, onComplete: () -> Unit = {}) {
-        fileNames.forEach { fileName ->
-            val destinationFile = File(context.filesDir, "$fileName.pdf")
-
-            if (!destinationFile.exists()) {
-                try {
-                    context.assets.open("$fileName.pdf").use { inputStream ->
-                        destinationFile.outputStream().use { outputStream ->
-                            inputStream.copyTo(outputStream, BUFFER_SIZE)
-                        }
-                    }
-                } catch (e: Exception) {
-                    e.printStackTrace()
-                }
-            }
-        }
-
-        onComplete()
+        val requests = fileNames.map { fileName -> AssetRequest("$fileName.pdf", File(context.filesDir, "$fileName.pdf")) }
+        ExtractAssetTask
+            .extractAll(requests, context, null)
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe(
+                { onComplete() },
+                { throwable -> Toast.makeText(context, "Failed to copy documents: ${throwable.message}", Toast.LENGTH_LONG).show() },
+            )
     }
-
-    private const val BUFFER_SIZE = 8192
 }
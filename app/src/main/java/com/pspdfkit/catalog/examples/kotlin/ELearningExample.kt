@@ -7,6 +7,7 @@
 
 package com.pspdfkit.catalog.examples.kotlin
 
+import android.annotation.SuppressLint
 import android.content.Context
 import android.net.Uri
 import android.os.Bundle
@@ -18,7 +19,8 @@ import com.pspdfkit.annotations.AnnotationType
 import com.pspdfkit.bookmarks.Bookmark
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
-import com.pspdfkit.catalog.tasks.ExtractAssetTask.extract
+import com.pspdfkit.catalog.tasks.ExtractAssetTask
+import com.pspdfkit.catalog.tasks.ExtractAssetTask.AssetRequest
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.configuration.page.PageLayoutMode
 import com.pspdfkit.configuration.sharing.ShareFeatures
@@ -29,6 +31,7 @@ import com.pspdfkit.ui.PdfActivity
 import com.pspdfkit.ui.PdfActivityIntentBuilder
 import com.pspdfkit.ui.special_mode.controller.AnnotationTool
 import com.pspdfkit.utils.getSupportParcelableExtra
+import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.Job
 import kotlinx.coroutines.launch
@@ -39,6 +42,7 @@ import java.util.EnumSet
  * This example shows how to swap between documents and sync view state, annotations, and bookmarks.
  */
 class ELearningExample(context: Context) : SdkExample(context, R.string.eLearningExampleTitle, R.string.eLearningExampleDescription) {
+    @SuppressLint("CheckResult")
     override fun launchExample(context: Context, configuration: PdfActivityConfiguration.Builder) {
         // We'll disable redaction tool in annotation creation toolbar to prevent creation of redaction annotations.
         val annotationTools = mutableListOf(*AnnotationTool.values())
@@ -67,9 +71,16 @@ class ELearningExample(context: Context) : SdkExample(context, R.string.eLearnin
         if (!PSPDFKitPreferences.get(context).isAnnotationCreatorSet) {
             PSPDFKitPreferences.get(context).setAnnotationCreator("John Doe")
         }
-        // Extracts the documents from the assets and loads the teacher version first.
-        extract("Teacher.pdf", title, context) { teacherDocumentFile ->
-            extract("Student.pdf", title, context) { studentDocumentFile ->
+        // Extracts both documents from the assets in parallel and loads the teacher version first.
+        val requests =
+            listOf(
+                AssetRequest("Teacher.pdf", title, false, null),
+                AssetRequest("Student.pdf", title, false, null),
+            )
+        ExtractAssetTask
+            .extractAll(requests, context, null)
+            .observeOn(AndroidSchedulers.mainThread())
+            .subscribe { (teacherDocumentFile, studentDocumentFile) ->
                 val teacherDocumentUri = Uri.fromFile(teacherDocumentFile)
                 val studentDocumentUri = Uri.fromFile(studentDocumentFile)
                 val intent =
@@ -82,7 +93,6 @@ class ELearningExample(context: Context) : SdkExample(context, R.string.eLearnin
                 intent.putExtra(ELearningActivity.TEACHER_URI_KEY, teacherDocumentUri)
                 context.startActivity(intent)
             }
-        }
     }
 }
 
@@ -20,6 +20,7 @@ import com.pspdfkit.annotations.AnnotationType
 import com.pspdfkit.bookmarks.Bookmark
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
+import com.pspdfkit.catalog.providers.MappedAssetDataProvider
 import com.pspdfkit.catalog.ui.FilterPickerView
 import com.pspdfkit.catalog.ui.FilterPickerView.Filter
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
@@ -27,7 +28,6 @@ import com.pspdfkit.document.DocumentSource
 import com.pspdfkit.document.PdfDocument
 import com.pspdfkit.document.processor.PdfProcessor
 import com.pspdfkit.document.processor.PdfProcessorTask
-import com.pspdfkit.document.providers.AssetDataProvider
 import com.pspdfkit.listeners.OnVisibilityChangedListener
 import com.pspdfkit.ui.DocumentDescriptor
 import com.pspdfkit.ui.PdfActivity
@@ -58,7 +58,7 @@ class FilterableThumbnailGridExample(context: Context) :
     override fun launchExample(context: Context, configuration: PdfActivityConfiguration.Builder) {
         val intent =
             PdfActivityIntentBuilder
-                .fromDataProvider(context, AssetDataProvider(WELCOME_DOC))
+                .fromDataProvider(context, MappedAssetDataProvider.forAsset(context, WELCOME_DOC))
                 .configuration(configuration.build())
                 .activityClass(FilterableThumbnailGridActivity::class.java)
                 .build()
@@ -46,6 +46,8 @@ import androidx.compose.ui.text.withStyle
 import androidx.compose.ui.unit.dp
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
+import com.pspdfkit.catalog.tasks.ExtractAssetTask
+import com.pspdfkit.catalog.tasks.ExtractAssetTask.AssetRequest
 import com.pspdfkit.catalog.ui.theming.CatalogTheme
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.document.library.LibraryFileSystemDataSource
@@ -267,19 +269,11 @@ class IndexedFullTextSearchActivity : ComponentActivity() {
             extractedDir.mkdirs()
         }
 
-        val assetManager = assets
-        val pdfAssets = assetManager.list("")?.filter { it.endsWith(".pdf") } ?: emptyList()
+        val pdfAssets = assets.list("")?.filter { it.endsWith(".pdf") } ?: emptyList()
 
-        for (assetName in pdfAssets) {
-            val outputFile = File(extractedDir, assetName)
-            if (!outputFile.exists()) {
-                assetManager.open(assetName).use { input ->
-                    outputFile.outputStream().use { output ->
-                        input.copyTo(output)
-                    }
-                }
-            }
-        }
+        // Extract all documents in parallel. We are already on a background thread, so we can simply wait for them.
+        val requests = pdfAssets.map { assetName -> AssetRequest(assetName, File(extractedDir, assetName)) }
+        ExtractAssetTask.extractAll(requests, this@IndexedFullTextSearchActivity, null).blockingGet()
 
         extractedDir
     }
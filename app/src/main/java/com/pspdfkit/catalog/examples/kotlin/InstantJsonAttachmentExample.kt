@@ -16,10 +16,10 @@ import androidx.activity.viewModels
 import com.pspdfkit.annotations.StampAnnotation
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
+import com.pspdfkit.catalog.providers.WindowedInputStreamDataProvider
 import com.pspdfkit.catalog.tasks.ExtractAssetTask
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.document.PdfDocument
-import com.pspdfkit.document.providers.InputStreamDataProvider
 import com.pspdfkit.ui.PdfActivity
 import com.pspdfkit.ui.PdfActivityIntentBuilder
 import kotlinx.coroutines.runBlocking
@@ -123,7 +123,7 @@ class InstantJsonAttachmentExampleActivity : PdfActivity() {
 /**
  * Data provider that handles serving data from [File].
  */
-open class FileDataProvider(val file: File) : InputStreamDataProvider() {
+open class FileDataProvider(val file: File) : WindowedInputStreamDataProvider() {
     override fun getSize(): Long = file.length()
 
     override fun getUid(): String = file.canonicalPath
@@ -20,7 +20,8 @@ import androidx.core.net.toUri
 import com.pspdfkit.Nutrient
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
-import com.pspdfkit.catalog.tasks.ExtractAssetTask.extractAsync
+import com.pspdfkit.catalog.tasks.ExtractAssetTask
+import com.pspdfkit.catalog.tasks.ExtractAssetTask.AssetRequest
 import com.pspdfkit.catalog.utils.Utils
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.configuration.activity.TabBarHidingMode
@@ -33,7 +34,6 @@ import com.pspdfkit.ui.DocumentDescriptor
 import com.pspdfkit.ui.PdfActivity
 import com.pspdfkit.ui.PdfActivityIntentBuilder
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers
-import io.reactivex.rxjava3.core.Observable
 import org.json.JSONArray
 import org.json.JSONObject
 import java.io.File
@@ -61,28 +61,27 @@ class PersistentTabsExample(context: Context) :
             val pdfFiles = listOf(WELCOME_DOC, "Aviation.pdf", "Annotations.pdf")
             val imageFiles = listOf("images/android.png")
 
-            val extractAssetsObservable =
-                Observable.concat(
-                    Observable
-                        .fromIterable(pdfFiles)
-                        .flatMapSingle { assetName -> extractAsync(assetName, assetName, context, false, null) }
-                        // PdfActivity uses document descriptors to encapsulate all information required for opening a single document.
-                        // Create document descriptors for extracted files right away so we can pass them directly to PdfActivityIntentBuilder.
-                        .map { file -> DocumentDescriptor.fromUri(Uri.fromFile(file)) },
-                    Observable
-                        .fromIterable(imageFiles)
-                        .flatMapSingle { assetName -> extractAsync(assetName, assetName, context, false, "png") }
-                        .map {
-                            val descriptor = DocumentDescriptor.imageDocumentFromUri(Uri.fromFile(it))
+            val requests =
+                pdfFiles.map { assetName -> AssetRequest(assetName, assetName, false, null) } +
+                    imageFiles.map { assetName -> AssetRequest(assetName, assetName, false, "png") }
+
+            // Extract all documents in parallel, so the tabs open as soon as the largest document is ready.
+            ExtractAssetTask
+                .extractAll(requests, context, null)
+                .map { files ->
+                    // PdfActivity uses document descriptors to encapsulate all information required for opening a single document.
+                    // Create document descriptors for extracted files right away so we can pass them directly to PdfActivityIntentBuilder.
+                    files.mapIndexed { index, file ->
+                        if (index < pdfFiles.size) {
+                            DocumentDescriptor.fromUri(Uri.fromFile(file))
+                        } else {
+                            val descriptor = DocumentDescriptor.imageDocumentFromUri(Uri.fromFile(file))
                             // File name of the image document is used as document title. Override this with a custom title.
                             descriptor.setTitle("Android Image Document")
                             descriptor
-                        },
-                )
-
-            extractAssetsObservable
-                // Collect the document descriptors into a single list.
-                .toList()
+                        }
+                    }
+                }
                 .observeOn(AndroidSchedulers.mainThread())
                 .subscribe { documentDescriptors ->
                     // Launch the example activity with extracted documents in tabs.
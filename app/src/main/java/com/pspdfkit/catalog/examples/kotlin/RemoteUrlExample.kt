@@ -21,15 +21,17 @@ import androidx.compose.runtime.Composable
 import androidx.compose.ui.viewinterop.AndroidView
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
+import com.pspdfkit.catalog.providers.CachedUrlDataProvider
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.document.providers.UrlDataProvider
 import com.pspdfkit.ui.PdfActivityIntentBuilder
+import okhttp3.HttpUrl.Companion.toHttpUrlOrNull
 import java.io.File
-import java.net.URL
 
 /**
- * This example illustrates how to make use of the [UrlDataProvider] to automatically download documents
- * from the internet and open them in Nutrient.
+ * This example illustrates how to automatically download documents from the internet and open them in Nutrient.
+ * Instead of the [UrlDataProvider], which downloads a document again every time it is opened, it uses the
+ * [CachedUrlDataProvider], which keeps documents in a disk-backed HTTP cache.
  */
 
 class RemoteUrlExample(val context: Context) :
@@ -73,13 +75,15 @@ class WebViewActivity : AppCompatActivity() {
                                 }
 
                                 ext.equals("pdf", ignoreCase = true) -> {
-                                    // Using the URLDataProvider gives us more control over the download.
-                                    // We can specify a target file to download the document to.
-                                    // This avoids downloading the image everytime the URL is opened.
-                                    PdfActivityIntentBuilder.fromDataProvider(
-                                        this@WebViewActivity,
-                                        UrlDataProvider(URL(uriString), File(filesDir, "myDocumentDownloads/${uriFile.name}")),
-                                    )
+                                    // Using the CachedUrlDataProvider gives us more control over the download.
+                                    // Downloaded documents are kept in an HTTP cache, so opening the URL again
+                                    // reads the document from disk, once the server confirmed it didn't change.
+                                    uriString.toHttpUrlOrNull()?.let { url ->
+                                        PdfActivityIntentBuilder.fromDataProvider(
+                                            this@WebViewActivity,
+                                            CachedUrlDataProvider(url, File(cacheDir, "remote-documents-http")),
+                                        )
+                                    }
                                 }
 
                                 listOf("jpg", "jpeg", "png").contains(ext) -> {
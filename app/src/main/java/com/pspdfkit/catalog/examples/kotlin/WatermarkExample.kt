@@ -23,9 +23,9 @@ import androidx.annotation.UiThread
 import androidx.core.graphics.withRotation
 import com.pspdfkit.catalog.R
 import com.pspdfkit.catalog.SdkExample
+import com.pspdfkit.catalog.providers.MappedAssetDataProvider
 import com.pspdfkit.configuration.activity.PdfActivityConfiguration
 import com.pspdfkit.document.PdfDocument
-import com.pspdfkit.document.providers.AssetDataProvider
 import com.pspdfkit.ui.PdfActivity
 import com.pspdfkit.ui.PdfActivityIntentBuilder
 import com.pspdfkit.ui.drawable.PdfDrawable
@@ -38,7 +38,7 @@ class WatermarkExample(context: Context) : SdkExample(context, R.string.watermar
     override fun launchExample(context: Context, configuration: PdfActivityConfiguration.Builder) {
         val intent =
             PdfActivityIntentBuilder
-                .fromDataProvider(context, AssetDataProvider(WELCOME_DOC))
+                .fromDataProvider(context, MappedAssetDataProvider.forAsset(context, WELCOME_DOC))
                 .configuration(configuration.build())
                 .activityClass(WatermarkExampleActivity::class.java)
                 .build()
@@ -7,14 +7,11 @@
 
 package com.pspdfkit.catalog.examples.kotlin.instant.api
 
+import com.pspdfkit.catalog.network.CatalogHttpClient
 import okhttp3.Credentials
 import okhttp3.Interceptor
-import okhttp3.OkHttpClient
-import retrofit2.Retrofit
-import retrofit2.converter.gson.GsonConverterFactory
 import retrofit2.http.GET
 import retrofit2.http.Path
-import java.util.concurrent.TimeUnit
 
 /**
  * Client for the Node/Rails example server endpoints used by the catalog Instant flow.
@@ -30,9 +27,11 @@ internal class ExampleServerClient(serverUrl: String, username: String) {
 
     init {
         val authHeader = Credentials.basic(username, "")
+        // The client shares its connection pool with the rest of the catalog, so only the first request to the example
+        // server pays for the connection setup.
         val okHttpClient =
-            OkHttpClient
-                .Builder()
+            CatalogHttpClient
+                .newBuilder()
                 .addInterceptor(
                     Interceptor { chain ->
                         val request =
@@ -43,16 +42,8 @@ internal class ExampleServerClient(serverUrl: String, username: String) {
                                 .build()
                         chain.proceed(request)
                     },
-                ).connectTimeout(30, TimeUnit.SECONDS)
-                .build()
-        val retrofit =
-            Retrofit
-                .Builder()
-                .baseUrl(ensureTrailingSlash(serverUrl))
-                .client(okHttpClient)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build()
-        apiService = retrofit.create(ExampleServerService::class.java)
+                ).build()
+        apiService = CatalogHttpClient.retrofit(ensureTrailingSlash(serverUrl), okHttpClient).create(ExampleServerService::class.java)
     }
 
     /** Lists documents from `/api/documents` for the given example server user. */
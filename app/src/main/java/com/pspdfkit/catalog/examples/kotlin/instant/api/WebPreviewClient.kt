@@ -7,19 +7,16 @@
 
 package com.pspdfkit.catalog.examples.kotlin.instant.api
 
+import com.pspdfkit.catalog.network.CatalogHttpClient
 import okhttp3.Credentials
 import okhttp3.Interceptor
-import okhttp3.OkHttpClient
 import okhttp3.Response
 import okhttp3.logging.HttpLoggingInterceptor
-import retrofit2.Retrofit
-import retrofit2.converter.gson.GsonConverterFactory
 import retrofit2.http.GET
 import retrofit2.http.Headers
 import retrofit2.http.POST
 import retrofit2.http.Url
 import java.io.IOException
-import java.util.concurrent.TimeUnit
 
 /**
  * Client for the Nutrient web preview server. In your own app, you would connect to your
@@ -34,20 +31,12 @@ class WebPreviewClient(serverUrl: String = "https://web-examples.our.services.nu
         logging.level = HttpLoggingInterceptor.Level.HEADERS
 
         val okHttpClient =
-            OkHttpClient
-                .Builder()
+            CatalogHttpClient
+                .newBuilder()
                 .addInterceptor(basicAuthInterceptor)
                 .addInterceptor(logging)
-                .connectTimeout(30, TimeUnit.SECONDS)
                 .build()
-        val retrofit: Retrofit =
-            Retrofit
-                .Builder()
-                .baseUrl(serverUrl)
-                .client(okHttpClient)
-                .addConverterFactory(GsonConverterFactory.create())
-                .build()
-        apiService = retrofit.create(WebPreviewService::class.java)
+        apiService = CatalogHttpClient.retrofit(serverUrl, okHttpClient).create(WebPreviewService::class.java)
     }
 
     /**
@@ -0,0 +1,141 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.network
+
+import android.util.Log
+import okhttp3.ConnectionPool
+import okhttp3.HttpUrl
+import okhttp3.HttpUrl.Companion.toHttpUrlOrNull
+import okhttp3.Interceptor
+import okhttp3.OkHttpClient
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
+import retrofit2.Retrofit
+import retrofit2.converter.gson.GsonConverterFactory
+import java.io.IOException
+import java.net.URL
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+
+/**
+ * The HTTP client shared by all network code of the catalog.
+ *
+ * Every client built from [client] or [newBuilder] shares one connection pool, so a download, its length probe and the
+ * Instant API calls to the same host reuse kept-alive connections instead of paying a TCP and TLS handshake each. HTTPS
+ * servers that support it are spoken to over HTTP/2, which runs all requests to a host over a single connection.
+ *
+ * Connection reuse per host is recorded, see [hostMetrics].
+ */
+object CatalogHttpClient {
+    private const val TAG = "CatalogHttpClient"
+
+    /** Idle connections kept in the pool, across all hosts. */
+    private const val MAX_IDLE_CONNECTIONS = 8
+
+    /** How long an idle connection is kept open for the next request. */
+    private const val KEEP_ALIVE_MINUTES = 5L
+
+    private const val CONNECT_TIMEOUT_SECONDS = 30L
+
+    /** Number of URLs whose content length is remembered. */
+    private const val MAX_CONTENT_LENGTHS = 64
+
+    private val hostCounters = ConcurrentHashMap<String, HostConnectionCounters>()
+
+    /** Content lengths seen in responses, by URL, so probing for the length doesn't need a request of its own. */
+    private val contentLengths =
+        object : LinkedHashMap<HttpUrl, Long>(MAX_CONTENT_LENGTHS, 0.75f, true) {
+            override fun removeEldestEntry(eldest: MutableMap.MutableEntry<HttpUrl, Long>) = size > MAX_CONTENT_LENGTHS
+        }
+
+    private val gsonConverterFactory = GsonConverterFactory.create()
+
+    /** The shared client. Use [newBuilder] for clients that need their own interceptors or timeouts. */
+    @JvmStatic
+    val client: OkHttpClient =
+        OkHttpClient
+            .Builder()
+            .connectionPool(ConnectionPool(MAX_IDLE_CONNECTIONS, KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .protocols(listOf(Protocol.HTTP_2, Protocol.HTTP_1_1))
+            .connectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+            .eventListenerFactory { call -> HostConnectionListener(hostCounters(call.request().url.host)) }
+            .addNetworkInterceptor(Interceptor { chain -> chain.proceed(chain.request()).also(::recordContentLength) })
+            .build()
+
+    /**
+     * Returns a builder for a client that shares the connection pool, dispatcher and metrics of [client]. Interceptors
+     * added to it only apply to the new client.
+     */
+    @JvmStatic
+    fun newBuilder(): OkHttpClient.Builder = client.newBuilder()
+
+    /** Creates a Retrofit instance for [baseUrl] that calls the API through [client] and parses JSON with Gson. */
+    @JvmStatic
+    @JvmOverloads
+    fun retrofit(baseUrl: String, client: OkHttpClient = this.client): Retrofit =
+        Retrofit
+            .Builder()
+            .baseUrl(baseUrl)
+            .client(client)
+            .addConverterFactory(gsonConverterFactory)
+            .build()
+
+    /**
+     * Returns the length of the document at [url] in bytes, or -1 if it is unknown.
+     *
+     * If a response for [url] already went through the shared client, its length is reused. Otherwise a `HEAD` request
+     * is sent, which leaves its connection in the pool for the download that usually follows.
+     */
+    @JvmStatic
+    fun contentLength(url: HttpUrl): Long {
+        synchronized(contentLengths) { contentLengths[url] }?.let { return it }
+
+        val request =
+            Request
+                .Builder()
+                .url(url)
+                .head()
+                .header("Accept-Encoding", "identity")
+                .build()
+        return try {
+            client.newCall(request).execute().use { response ->
+                if (response.isSuccessful) response.header("Content-Length")?.toLongOrNull() ?: -1 else -1
+            }
+        } catch (e: IOException) {
+            Log.w(TAG, "Could not probe the length of $url.", e)
+            -1
+        }
+    }
+
+    /** Returns the length of the document at [url] in bytes, or -1 if it is unknown. See [contentLength]. */
+    @JvmStatic
+    fun contentLength(url: URL): Long = url.toHttpUrlOrNull()?.let { contentLength(it) } ?: -1
+
+    /** Returns the connection metrics of all hosts contacted so far. */
+    @JvmStatic
+    fun hostMetrics(): List<HostConnectionMetrics> = hostCounters.values.map { it.snapshot() }.sortedBy { it.host }
+
+    /** Returns the connection metrics of [host], or `null` if it wasn't contacted yet. */
+    @JvmStatic
+    fun hostMetrics(host: String): HostConnectionMetrics? = hostCounters[host]?.snapshot()
+
+    private fun hostCounters(host: String) = hostCounters.getOrPut(host) { HostConnectionCounters(host) }
+
+    private fun recordContentLength(response: Response) {
+        // Compressed responses don't tell the length of the document.
+        if (response.header("Content-Encoding") != null) return
+        val length =
+            when (response.code) {
+                200 -> response.header("Content-Length")?.toLongOrNull()
+                206 -> response.header("Content-Range")?.substringAfterLast('/')?.toLongOrNull()
+                else -> null
+            } ?: return
+        synchronized(contentLengths) { contentLengths[response.request.url] = length }
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.network
+
+import android.util.Log
+import com.pspdfkit.catalog.utils.StringUtils
+import okhttp3.CacheControl
+import okhttp3.Headers
+import okhttp3.HttpUrl
+import okhttp3.OkHttpClient
+import okhttp3.Request
+import okhttp3.Response
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.net.HttpURLConnection
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Disk cache for remote documents, following the HTTP caching rules.
+ *
+ * [fetch] returns a local file holding the document. A document that is still fresh according to its `Cache-Control`
+ * or `Expires` headers is served without contacting the server. A stale one is revalidated with `If-None-Match` and
+ * `If-Modified-Since`, so an unchanged document only costs a `304 Not Modified` round trip. Documents are stored as
+ * plain files, so data providers can read them at random offsets.
+ *
+ * Once the documents take up more than the maximum size, the least recently used ones are deleted. Hits, misses and
+ * the bytes that didn't have to be downloaded are counted in [stats].
+ */
+class DocumentHttpCache private constructor(
+    private val directory: File,
+    private val maxSize: Long,
+    private val client: OkHttpClient,
+) {
+    /** Receives the number of bytes downloaded so far, and the document's length, or -1 if it isn't known. */
+    fun interface ProgressListener {
+        fun onProgress(downloadedBytes: Long, totalBytes: Long)
+    }
+
+    /** How the documents opened through a cache were served. */
+    data class Stats(
+        /** Documents served without contacting the server. */
+        val freshHits: Long,
+        /** Documents served from disk after the server confirmed they didn't change. */
+        val revalidatedHits: Long,
+        /** Stale documents served from disk because the server couldn't be reached. */
+        val staleHits: Long,
+        /** Documents that had to be downloaded. */
+        val misses: Long,
+        /** Bytes served from disk instead of being downloaded. */
+        val bytesSaved: Long,
+        /** Bytes downloaded. */
+        val bytesDownloaded: Long,
+    ) {
+        val requests: Long
+            get() = freshHits + revalidatedHits + staleHits + misses
+
+        /** Share of documents served from disk. */
+        val hitRatio: Double
+            get() = if (requests == 0L) 0.0 else (requests - misses).toDouble() / requests
+
+        override fun toString(): String =
+            "%d requests, %.0f%% hits (%d fresh, %d revalidated, %d stale), %d KB saved, %d KB downloaded".format(
+                requests,
+                hitRatio * 100,
+                freshHits,
+                revalidatedHits,
+                staleHits,
+                bytesSaved / 1024,
+                bytesDownloaded / 1024,
+            )
+    }
+
+    private val freshHits = AtomicLong()
+    private val revalidatedHits = AtomicLong()
+    private val staleHits = AtomicLong()
+    private val misses = AtomicLong()
+    private val bytesSaved = AtomicLong()
+    private val bytesDownloaded = AtomicLong()
+
+    /** Locks of the documents, keyed like their files. Held while a document is looked up, revalidated or downloaded. */
+    private val documentLocks = ConcurrentHashMap<String, Any>()
+
+    /** Returns how the documents opened through this cache were served so far. */
+    fun stats() = Stats(freshHits.get(), revalidatedHits.get(), staleHits.get(), misses.get(), bytesSaved.get(), bytesDownloaded.get())
+
+    /**
+     * Returns a file holding the document at [url], downloading or revalidating it if needed. If the server can't be
+     * reached, a stale copy is returned, unless the server asked for revalidation with `must-revalidate`.
+     *
+     * Concurrent fetches of the same document share its download or revalidation. Fetches of other documents don't
+     * wait for it.
+     *
+     * The returned file stays readable while it is open, even if the cache later replaces or evicts it.
+     */
+    @JvmOverloads
+    @Throws(IOException::class)
+    fun fetch(url: HttpUrl, listener: ProgressListener? = null): File {
+        val key = StringUtils.sha1(url.toString())
+        // Only one request per document is in flight. The cache itself is only locked while its files change.
+        synchronized(documentLocks.computeIfAbsent(key) { Any() }) {
+            return fetchLocked(url, key, listener)
+        }
+    }
+
+    private fun fetchLocked(url: HttpUrl, key: String, listener: ProgressListener?): File {
+        val documentFile = File(directory, "$key.pdf")
+        val metadataFile = File(directory, "$key.meta")
+        val entry =
+            synchronized(this) {
+                val stored = Entry.read(metadataFile)?.takeIf { it.url == url.toString() && it.length == documentFile.length() }
+                if (stored != null && stored.isFresh(System.currentTimeMillis())) {
+                    freshHits.incrementAndGet()
+                    return served(url, documentFile, "fresh")
+                }
+                stored
+            }
+
+        val request = Request.Builder().url(url)
+        entry?.headers?.get("ETag")?.let { request.header("If-None-Match", it) }
+        entry?.headers?.get("Last-Modified")?.let { request.header("If-Modified-Since", it) }
+
+        val response =
+            try {
+                client.newCall(request.build()).execute()
+            } catch (e: IOException) {
+                if (entry == null || entry.cacheControl.mustRevalidate) throw e
+                synchronized(this) {
+                    if (isStored(documentFile, entry)) {
+                        Log.w(TAG, "Could not revalidate $url, using the stale copy.", e)
+                        staleHits.incrementAndGet()
+                        return served(url, documentFile, "stale")
+                    }
+                }
+                throw e
+            }
+
+        response.use {
+            if (response.code != HttpURLConnection.HTTP_NOT_MODIFIED || entry == null) {
+                return store(url, response, documentFile, metadataFile, listener)
+            }
+            synchronized(this) {
+                // Other documents are downloaded meanwhile, so this one may have been evicted while it was revalidated.
+                if (isStored(documentFile, entry)) {
+                    // The 304 response carries the new freshness information of the stored document.
+                    revalidatedHits.incrementAndGet()
+                    entry.updatedWith(response).write(metadataFile)
+                    return served(url, documentFile, "revalidated")
+                }
+            }
+        }
+
+        Log.d(TAG, "$url was evicted while it was revalidated, downloading it again.")
+        return client.newCall(Request.Builder().url(url).build()).execute().use { response ->
+            store(url, response, documentFile, metadataFile, listener)
+        }
+    }
+
+    /** Whether [documentFile] still holds the document described by [entry]. Must be called while holding the cache's lock. */
+    private fun isStored(documentFile: File, entry: Entry): Boolean = documentFile.exists() && documentFile.length() == entry.length
+
+    /** Downloads the document of the successful [response] into [documentFile], replacing any stored copy. */
+    private fun store(url: HttpUrl, response: Response, documentFile: File, metadataFile: File, listener: ProgressListener?): File {
+        if (!response.isSuccessful) throw IOException("Download of $url failed with HTTP status ${response.code}")
+
+        val temporaryFile = download(response, documentFile, listener)
+        misses.incrementAndGet()
+        synchronized(this) {
+            if (!temporaryFile.renameTo(documentFile)) {
+                temporaryFile.delete()
+                throw IOException("Could not replace $documentFile")
+            }
+            if (response.cacheControl.noStore) {
+                // The document is only kept until it is opened again.
+                metadataFile.delete()
+            } else {
+                Entry.from(url, response, documentFile.length()).write(metadataFile)
+            }
+            trimToSize(documentFile)
+        }
+        Log.d(TAG, "Downloaded $url. ${stats()}")
+        return documentFile
+    }
+
+    /** Marks [documentFile] as used. Must be called while holding the cache's lock, so it can't be evicted meanwhile. */
+    private fun served(url: HttpUrl, documentFile: File, how: String): File {
+        // The modification time orders documents for eviction.
+        documentFile.setLastModified(System.currentTimeMillis())
+        bytesSaved.addAndGet(documentFile.length())
+        Log.d(TAG, "Served $url from disk ($how). ${stats()}")
+        return documentFile
+    }
+
+    /** Downloads the body of [response] next to [documentFile], and returns the temporary file holding it. */
+    private fun download(response: Response, documentFile: File, listener: ProgressListener?): File {
+        val body = response.body ?: throw IOException("Response has no body")
+        val totalBytes = body.contentLength()
+        val temporaryFile = File(documentFile.path + ".tmp")
+        try {
+            FileOutputStream(temporaryFile).use { output ->
+                val input = body.byteStream()
+                val buffer = ByteArray(BUFFER_SIZE)
+                var downloadedBytes = 0L
+                while (true) {
+                    val count = input.read(buffer)
+                    if (count < 0) break
+                    output.write(buffer, 0, count)
+                    downloadedBytes += count
+                    listener?.onProgress(downloadedBytes, totalBytes)
+                }
+                output.fd.sync()
+                bytesDownloaded.addAndGet(downloadedBytes)
+            }
+        } catch (e: IOException) {
+            temporaryFile.delete()
+            throw e
+        }
+        return temporaryFile
+    }
+
+    /**
+     * Deletes the least recently used documents until the cache fits into its maximum size, except for [keep]. Must be
+     * called while holding the cache's lock.
+     */
+    private fun trimToSize(keep: File) {
+        val documents = directory.listFiles { file -> file.name.endsWith(".pdf") }.orEmpty().sortedBy { it.lastModified() }
+        var size = documents.sumOf { it.length() }
+        for (document in documents) {
+            if (size <= maxSize) break
+            if (document == keep) continue
+            size -= document.length()
+            document.delete()
+            File(directory, document.nameWithoutExtension + ".meta").delete()
+            Log.d(TAG, "Evicted ${document.name} from the document cache.")
+        }
+    }
+
+    /** The response headers of a stored document that decide whether it can be reused. */
+    private class Entry(
+        val url: String,
+        val length: Long,
+        /** When the response was received, in local time. */
+        val receivedAtMillis: Long,
+        val headers: Headers,
+    ) {
+        val cacheControl: CacheControl
+            get() = CacheControl.parse(headers)
+
+        /** Whether the document can be used without revalidation at [nowMillis], following RFC 9111, section 4.2. */
+        fun isFresh(nowMillis: Long): Boolean {
+            if (cacheControl.noCache) return false
+            val servedMillis = headers.getDate("Date")?.time ?: receivedAtMillis
+            val apparentAgeMillis = maxOf(0L, receivedAtMillis - servedMillis)
+            val ageHeaderMillis = TimeUnit.SECONDS.toMillis(headers["Age"]?.toLongOrNull() ?: 0L)
+            val currentAgeMillis = maxOf(apparentAgeMillis, ageHeaderMillis) + (nowMillis - receivedAtMillis)
+            return currentAgeMillis < freshnessLifetimeMillis(servedMillis)
+        }
+
+        private fun freshnessLifetimeMillis(servedMillis: Long): Long {
+            if (cacheControl.maxAgeSeconds >= 0) return TimeUnit.SECONDS.toMillis(cacheControl.maxAgeSeconds.toLong())
+            headers.getDate("Expires")?.let { return it.time - servedMillis }
+            // Without explicit freshness, documents that didn't change for a long time are assumed to stay unchanged
+            // for a tenth of that time.
+            headers.getDate("Last-Modified")?.let { return (servedMillis - it.time) / 10 }
+            return 0
+        }
+
+        /** Returns this entry with the headers of the `304` [response] merged in. */
+        fun updatedWith(response: Response): Entry {
+            val merged = headers.newBuilder()
+            for (name in response.headers.names()) {
+                if (name.lowercase() in STORED_HEADERS) merged[name] = response.headers[name]!!
+            }
+            return Entry(url, length, response.receivedResponseAtMillis, merged.build())
+        }
+
+        fun write(file: File) {
+            val temporaryFile = File(file.path + ".tmp")
+            FileOutputStream(temporaryFile).use { output ->
+                val data = DataOutputStream(output)
+                data.writeInt(ENTRY_VERSION)
+                data.writeUTF(url)
+                data.writeLong(length)
+                data.writeLong(receivedAtMillis)
+                data.writeInt(headers.size)
+                for (index in 0 until headers.size) {
+                    data.writeUTF(headers.name(index))
+                    data.writeUTF(headers.value(index))
+                }
+                data.flush()
+                output.fd.sync()
+            }
+            if (!temporaryFile.renameTo(file)) throw IOException("Could not replace $file")
+        }
+
+        companion object {
+            /** Bump when the format of entry files changes. Entries of other versions are downloaded again. */
+            private const val ENTRY_VERSION = 1
+
+            /** Response headers that are stored, lowercase. */
+            private val STORED_HEADERS = setOf("cache-control", "pragma", "expires", "date", "age", "etag", "last-modified")
+
+            fun from(url: HttpUrl, response: Response, length: Long): Entry {
+                val headers = Headers.Builder()
+                for (index in 0 until response.headers.size) {
+                    val name = response.headers.name(index)
+                    if (name.lowercase() in STORED_HEADERS) headers.add(name, response.headers.value(index))
+                }
+                return Entry(url.toString(), length, response.receivedResponseAtMillis, headers.build())
+            }
+
+            fun read(file: File): Entry? =
+                try {
+                    DataInputStream(FileInputStream(file)).use { input ->
+                        if (input.readInt() != ENTRY_VERSION) return null
+                        val url = input.readUTF()
+                        val length = input.readLong()
+                        val receivedAtMillis = input.readLong()
+                        val headers = Headers.Builder()
+                        repeat(input.readInt()) { headers.add(input.readUTF(), input.readUTF()) }
+                        Entry(url, length, receivedAtMillis, headers.build())
+                    }
+                } catch (e: IOException) {
+                    null
+                }
+        }
+    }
+
+    companion object {
+        private const val TAG = "DocumentHttpCache"
+        private const val BUFFER_SIZE = 64 * 1024
+
+        /** Default maximum size of the documents in a cache. */
+        const val DEFAULT_MAX_SIZE = 64L * 1024 * 1024
+
+        private val caches = HashMap<String, DocumentHttpCache>()
+
+        /**
+         * Returns the cache storing its documents in [directory]. All callers share one instance per directory, so
+         * their downloads don't interfere and their stats add up. The instance keeps the [maxSize] of the first call.
+         */
+        @JvmStatic
+        @JvmOverloads
+        fun forDirectory(directory: File, maxSize: Long = DEFAULT_MAX_SIZE, client: OkHttpClient = CatalogHttpClient.client): DocumentHttpCache =
+            synchronized(caches) {
+                caches.getOrPut(directory.absolutePath) {
+                    directory.mkdirs()
+                    DocumentHttpCache(directory, maxSize, client)
+                }
+            }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.network
+
+import okhttp3.Call
+import okhttp3.Connection
+import okhttp3.EventListener
+import okhttp3.Handshake
+import okhttp3.Protocol
+import java.io.IOException
+import java.net.InetSocketAddress
+import java.net.Proxy
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/** How the requests that [CatalogHttpClient] sent to [host] were served. */
+data class HostConnectionMetrics(
+    val host: String,
+    /** Requests made. A request that is redirected or retried counts once. */
+    val calls: Int,
+    /** Requests that failed. */
+    val failedCalls: Int,
+    /** Connections that had to be established. */
+    val newConnections: Int,
+    /** Times a pooled or multiplexed connection was used instead of establishing one. */
+    val reusedConnections: Int,
+    /** Established connections that speak HTTP/2. */
+    val http2Connections: Int,
+    /** TLS handshakes performed. */
+    val tlsHandshakes: Int,
+    /** Time spent establishing connections, including TLS handshakes. */
+    val connectMillis: Long,
+) {
+    /** Share of connection uses that didn't need a new connection. */
+    val reuseRatio: Double
+        get() = if (newConnections + reusedConnections == 0) 0.0 else reusedConnections.toDouble() / (newConnections + reusedConnections)
+
+    override fun toString(): String =
+        "$host: $calls calls ($failedCalls failed), $newConnections new connections ($http2Connections HTTP/2, " +
+            "$tlsHandshakes TLS handshakes, $connectMillis ms), $reusedConnections reused " +
+            "(%.0f%%)".format(reuseRatio * 100)
+}
+
+/** Counts connection events of a single host. */
+internal class HostConnectionCounters(private val host: String) {
+    val calls = AtomicInteger()
+    val failedCalls = AtomicInteger()
+    val newConnections = AtomicInteger()
+    val reusedConnections = AtomicInteger()
+    val http2Connections = AtomicInteger()
+    val tlsHandshakes = AtomicInteger()
+    val connectNanos = AtomicLong()
+
+    fun snapshot() =
+        HostConnectionMetrics(
+            host,
+            calls.get(),
+            failedCalls.get(),
+            newConnections.get(),
+            reusedConnections.get(),
+            http2Connections.get(),
+            tlsHandshakes.get(),
+            connectNanos.get() / 1_000_000,
+        )
+}
+
+/** Records the connection events of a single call. OkHttp creates one listener per call. */
+internal class HostConnectionListener(private val counters: HostConnectionCounters) : EventListener() {
+    private var connectStart = 0L
+    private var connected = false
+
+    override fun callStart(call: Call) {
+        counters.calls.incrementAndGet()
+    }
+
+    override fun connectStart(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy) {
+        connectStart = System.nanoTime()
+    }
+
+    override fun secureConnectEnd(call: Call, handshake: Handshake?) {
+        counters.tlsHandshakes.incrementAndGet()
+    }
+
+    override fun connectEnd(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy, protocol: Protocol?) {
+        connected = true
+        counters.newConnections.incrementAndGet()
+        counters.connectNanos.addAndGet(System.nanoTime() - connectStart)
+        if (protocol == Protocol.HTTP_2) counters.http2Connections.incrementAndGet()
+    }
+
+    override fun connectFailed(call: Call, inetSocketAddress: InetSocketAddress, proxy: Proxy, protocol: Protocol?, ioe: IOException) {
+        counters.connectNanos.addAndGet(System.nanoTime() - connectStart)
+    }
+
+    override fun connectionAcquired(call: Call, connection: Connection) {
+        // A connection that this call didn't establish came from the pool, or is shared with other HTTP/2 calls.
+        if (!connected) counters.reusedConnections.incrementAndGet()
+        connected = false
+    }
+
+    override fun callFailed(call: Call, ioe: IOException) {
+        counters.failedCalls.incrementAndGet()
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers;
+
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.pspdfkit.catalog.network.DocumentHttpCache;
+import com.pspdfkit.catalog.utils.ProgressCoalescer;
+import com.pspdfkit.catalog.utils.StringUtils;
+import com.pspdfkit.document.providers.DataProvider;
+import com.pspdfkit.document.providers.ProgressDataProvider;
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import okhttp3.HttpUrl;
+
+/**
+ * {@link DataProvider} for remote documents that keeps them in a {@link DocumentHttpCache}. Opening
+ * a document that is still fresh doesn't contact the server at all, and an unchanged stale document
+ * is served from disk after a single {@code 304 Not Modified} round trip. Only new or changed
+ * documents are downloaded, reporting their download progress.
+ */
+public class CachedUrlDataProvider implements ProgressDataProvider, Parcelable {
+    public static final Creator<CachedUrlDataProvider> CREATOR = new Creator<>() {
+        @Override
+        public CachedUrlDataProvider createFromParcel(Parcel in) {
+            return new CachedUrlDataProvider(in);
+        }
+
+        @Override
+        public CachedUrlDataProvider[] newArray(int size) {
+            return new CachedUrlDataProvider[size];
+        }
+    };
+
+    @NonNull
+    private final HttpUrl url;
+
+    @NonNull
+    private final File cacheDirectory;
+
+    /** Reports the fraction of the document that was downloaded. */
+    @NonNull
+    private final BehaviorSubject<Double> progressSubject = BehaviorSubject.create();
+
+    /** The cached document, opened on first use. */
+    @Nullable
+    private RandomAccessFile file;
+
+    /**
+     * @param url URL of the document.
+     * @param cacheDirectory Directory of the {@link DocumentHttpCache} holding the document.
+     */
+    public CachedUrlDataProvider(@NonNull final HttpUrl url, @NonNull final File cacheDirectory) {
+        this.url = url;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    private CachedUrlDataProvider(@NonNull final Parcel in) {
+        this(HttpUrl.get(in.readString()), new File(in.readString()));
+    }
+
+    @NonNull
+    private synchronized FileChannel getChannel() throws IOException {
+        if (file == null) {
+            final File document = DocumentHttpCache.forDirectory(cacheDirectory)
+                    .fetch(url, (downloadedBytes, totalBytes) -> {
+                        if (totalBytes > 0) progressSubject.onNext((double) downloadedBytes / totalBytes);
+                    });
+            file = new RandomAccessFile(document, "r");
+            progressSubject.onNext(1.0);
+            progressSubject.onComplete();
+        }
+        return file.getChannel();
+    }
+
+    @NonNull
+    @Override
+    public byte[] read(long size, long offset) {
+        try {
+            final FileChannel channel = getChannel();
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(0, Math.min(size, channel.size() - offset)));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) break;
+            }
+            return buffer.array();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not read " + url + ": " + e.getMessage(), e);
+            return new byte[0];
+        }
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return getChannel().size();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open " + url + ": " + e.getMessage(), e);
+            return DataProvider.FILE_SIZE_UNKNOWN;
+        }
+    }
+
+    @NonNull
+    @Override
+    public Flowable<Double> observeProgress() {
+        // Progress changes with every received buffer, but the UI only needs it once per frame.
+        return progressSubject.toFlowable(BackpressureStrategy.LATEST).compose(ProgressCoalescer.perFrame());
+    }
+
+    @NonNull
+    @Override
+    public String getUid() {
+        return StringUtils.sha1(url.toString());
+    }
+
+    @Nullable
+    @Override
+    public String getTitle() {
+        return null;
+    }
+
+    @Override
+    public synchronized void release() {
+        if (file == null) return;
+        try {
+            file.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not close the cached copy of " + url, e);
+        }
+        file = null;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeString(url.toString());
+        dest.writeString(cacheDirectory.getAbsolutePath());
+    }
+}
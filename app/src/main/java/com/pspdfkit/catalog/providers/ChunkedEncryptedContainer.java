@@ -0,0 +1,388 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers;
+
+import androidx.annotation.NonNull;
+import com.pspdfkit.document.providers.DataProvider;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypted container splitting a document into independently sealed chunks, so any chunk can be
+ * decrypted and verified on its own, and chunks can be decrypted in parallel.
+ *
+ * <p>The layout of a container is:
+ *
+ * <pre>
+ * header:  magic (4) | version (4) | chunk size (4)
+ * chunk:   nonce (12) | AES-256-GCM ciphertext | tag (16)     (repeated for every chunk)
+ * index:   file offset (8) | plain length (4)                   (one entry per chunk)
+ * trailer: chunk count (4) | index offset (8) | magic (4)
+ * </pre>
+ *
+ * Every chunk has its own random nonce and authentication tag. The chunk's index and whether it is the
+ * last chunk are authenticated as additional data, so chunks can't be reordered, swapped between
+ * positions, or cut off from the end of the container without failing verification.
+ */
+public final class ChunkedEncryptedContainer implements Closeable {
+    /** Default amount of plain bytes stored per chunk. */
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    static final int MAGIC = 0x4E434543; // "NCEC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 12;
+    static final int NONCE_SIZE = 12;
+    static final int TAG_SIZE = 16;
+    static final int INDEX_ENTRY_SIZE = 12;
+    static final int TRAILER_SIZE = 16;
+
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+
+    @NonNull
+    private final FileChannel channel;
+
+    @NonNull
+    private final SecretKeySpec key;
+
+    /** Position of every chunk's nonce inside the file. */
+    @NonNull
+    private final long[] chunkFileOffsets;
+
+    /** Plain offset of every chunk, plus the total plain size as last element. */
+    @NonNull
+    private final long[] chunkPlainOffsets;
+
+    private final int maxChunkLength;
+
+    /** Ciphers aren't thread-safe, so every thread decrypting chunks uses its own. */
+    @NonNull
+    private final ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+
+    private ChunkedEncryptedContainer(
+            @NonNull final FileChannel channel,
+            @NonNull final SecretKeySpec key,
+            @NonNull final long[] chunkFileOffsets,
+            @NonNull final long[] chunkPlainOffsets,
+            final int maxChunkLength) {
+        this.channel = channel;
+        this.key = key;
+        this.chunkFileOffsets = chunkFileOffsets;
+        this.chunkPlainOffsets = chunkPlainOffsets;
+        this.maxChunkLength = maxChunkLength;
+    }
+
+    /**
+     * Opens a container for reading. This only reads the header and the index, chunks are verified
+     * once they are decrypted.
+     *
+     * @param file Container file.
+     * @param key 256 bit AES key the container was written with.
+     */
+    @NonNull
+    public static ChunkedEncryptedContainer open(@NonNull final File file, @NonNull final byte[] key)
+            throws IOException {
+        final FileChannel channel = new FileInputStream(file).getChannel();
+        try {
+            final ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) throw new IOException(file + " is not an encrypted container.");
+            final int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported container version " + version);
+
+            final long fileSize = channel.size();
+            final ByteBuffer trailer = readFully(channel, fileSize - TRAILER_SIZE, TRAILER_SIZE);
+            final int chunkCount = trailer.getInt();
+            final long indexOffset = trailer.getLong();
+            if (trailer.getInt() != MAGIC
+                    || chunkCount < 1
+                    || indexOffset + (long) chunkCount * INDEX_ENTRY_SIZE != fileSize - TRAILER_SIZE) {
+                throw new IOException("Corrupt trailer in " + file);
+            }
+
+            final ByteBuffer index = readFully(channel, indexOffset, chunkCount * INDEX_ENTRY_SIZE);
+            final long[] chunkFileOffsets = new long[chunkCount];
+            final long[] chunkPlainOffsets = new long[chunkCount + 1];
+            int maxChunkLength = 0;
+            for (int i = 0; i < chunkCount; i++) {
+                chunkFileOffsets[i] = index.getLong();
+                final int plainLength = index.getInt();
+                if (plainLength < 0) throw new IOException("Corrupt index in " + file);
+                chunkPlainOffsets[i + 1] = chunkPlainOffsets[i] + plainLength;
+                maxChunkLength = Math.max(maxChunkLength, plainLength);
+            }
+            return new ChunkedEncryptedContainer(
+                    channel, new SecretKeySpec(key, "AES"), chunkFileOffsets, chunkPlainOffsets, maxChunkLength);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Returns the size of the decrypted document. */
+    public long getPlainSize() {
+        return chunkPlainOffsets[chunkPlainOffsets.length - 1];
+    }
+
+    public int getChunkCount() {
+        return chunkFileOffsets.length;
+    }
+
+    /** Returns the largest amount of plain bytes stored in a single chunk. */
+    public int getMaxChunkLength() {
+        return maxChunkLength;
+    }
+
+    /** Returns the plain offset of the first byte stored in chunk {@code chunkIndex}. */
+    public long getChunkPlainOffset(final int chunkIndex) {
+        return chunkPlainOffsets[chunkIndex];
+    }
+
+    /** Returns the amount of plain bytes stored in chunk {@code chunkIndex}. */
+    public int getChunkLength(final int chunkIndex) {
+        return (int) (chunkPlainOffsets[chunkIndex + 1] - chunkPlainOffsets[chunkIndex]);
+    }
+
+    /** Returns the index of the chunk holding the plain byte at {@code plainOffset}. */
+    public int findChunk(final long plainOffset) {
+        final int position = Arrays.binarySearch(chunkPlainOffsets, 0, chunkFileOffsets.length, plainOffset);
+        return position >= 0 ? position : -position - 2;
+    }
+
+    /**
+     * Decrypts and verifies a single chunk. This is thread-safe, so chunks may be decrypted in
+     * parallel.
+     *
+     * @param chunkIndex Index of the chunk to decrypt.
+     * @param output Array receiving {@link #getChunkLength(int)} decrypted bytes.
+     * @param outputOffset Position inside {@code output} of the chunk's first byte.
+     * @throws GeneralSecurityException If the chunk was modified or doesn't belong to this position.
+     */
+    public void decryptChunk(final int chunkIndex, @NonNull final byte[] output, final int outputOffset)
+            throws IOException, GeneralSecurityException {
+        final int plainLength = getChunkLength(chunkIndex);
+        final ByteBuffer sealedChunk =
+                readFully(channel, chunkFileOffsets[chunkIndex], NONCE_SIZE + plainLength + TAG_SIZE);
+
+        final Cipher cipher = getCipher();
+        cipher.init(
+                Cipher.DECRYPT_MODE,
+                key,
+                new GCMParameterSpec(TAG_SIZE * 8, sealedChunk.array(), 0, NONCE_SIZE));
+        cipher.updateAAD(associatedData(chunkIndex, chunkIndex == getChunkCount() - 1));
+        final int decrypted =
+                cipher.doFinal(sealedChunk.array(), NONCE_SIZE, plainLength + TAG_SIZE, output, outputOffset);
+        if (decrypted != plainLength) {
+            throw new GeneralSecurityException("Chunk " + chunkIndex + " has an unexpected length.");
+        }
+    }
+
+    /**
+     * Verifies the chunks {@code firstChunk} to {@code lastChunk} (inclusive) without keeping their
+     * decrypted contents.
+     *
+     * @return {@code true} if all of these chunks are authentic.
+     */
+    public boolean verify(final int firstChunk, final int lastChunk) throws IOException {
+        final byte[] scratch = new byte[maxChunkLength];
+        try {
+            for (int i = firstChunk; i <= lastChunk; i++) {
+                decryptChunk(i, scratch, 0);
+            }
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @NonNull
+    private Cipher getCipher() throws GeneralSecurityException {
+        Cipher cipher = ciphers.get();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(TRANSFORMATION);
+            ciphers.set(cipher);
+        }
+        return cipher;
+    }
+
+    /**
+     * Encrypts all data of {@code source} into a new container at {@code target}. This is used for
+     * migrating documents from other formats, for example from an AES-CTR encrypted file opened with
+     * its own {@link DataProvider}. The container is written next to {@code target} first and only
+     * moved into place once it is complete.
+     *
+     * @param source Provider of the plain document.
+     * @param target File the container is written to.
+     * @param key 256 bit AES key used for sealing the chunks.
+     * @param chunkSize Amount of plain bytes stored per chunk.
+     */
+    public static void encrypt(
+            @NonNull final DataProvider source,
+            @NonNull final File target,
+            @NonNull final byte[] key,
+            final int chunkSize)
+            throws IOException {
+        final File temporaryTarget = new File(target.getPath() + ".tmp");
+        try {
+            try (Writer writer = new Writer(temporaryTarget, key, chunkSize)) {
+                final long size = source.getSize();
+                long offset = 0;
+                while (offset < size) {
+                    final byte[] data = source.read(Math.min(chunkSize, size - offset), offset);
+                    if (data.length == 0) throw new IOException("Could not read source at " + offset);
+                    writer.write(data, 0, data.length);
+                    offset += data.length;
+                }
+            }
+            if (!temporaryTarget.renameTo(target)) {
+                throw new IOException("Could not move container to " + target);
+            }
+        } finally {
+            // Only still there if writing or moving the container failed, whatever the failure was.
+            temporaryTarget.delete();
+        }
+    }
+
+    @NonNull
+    private static byte[] associatedData(final int chunkIndex, final boolean lastChunk) {
+        return ByteBuffer.allocate(5)
+                .putInt(chunkIndex)
+                .put((byte) (lastChunk ? 1 : 0))
+                .array();
+    }
+
+    @NonNull
+    private static ByteBuffer readFully(@NonNull final FileChannel channel, final long position, final int size)
+            throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of container at " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes a new container. A chunk is only sealed once the next chunk starts or the writer is
+     * closed, since the last chunk is marked as such.
+     */
+    public static final class Writer implements Closeable {
+        @NonNull
+        private final FileOutputStream output;
+
+        @NonNull
+        private final SecretKeySpec key;
+
+        @NonNull
+        private final Cipher cipher;
+
+        @NonNull
+        private final SecureRandom random = new SecureRandom();
+
+        /** Plain data of the chunk that is sealed next. */
+        @NonNull
+        private final byte[] pendingChunk;
+
+        private int pendingLength = 0;
+
+        @NonNull
+        private final List<long[]> index = new ArrayList<>();
+
+        private long position = 0;
+
+        public Writer(@NonNull final File file, @NonNull final byte[] key, final int chunkSize) throws IOException {
+            if (chunkSize < 1) throw new IllegalArgumentException("Chunk size must be positive.");
+            try {
+                this.cipher = Cipher.getInstance(TRANSFORMATION);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("This device does not support AES-GCM!", e);
+            }
+            this.key = new SecretKeySpec(key, "AES");
+            this.pendingChunk = new byte[chunkSize];
+            this.output = new FileOutputStream(file);
+            write(ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(chunkSize)
+                    .array());
+        }
+
+        public void write(@NonNull final byte[] data, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (pendingLength == pendingChunk.length) {
+                    // More data follows, so the pending chunk isn't the last one.
+                    sealPendingChunk(false);
+                }
+                final int copied = Math.min(length, pendingChunk.length - pendingLength);
+                System.arraycopy(data, offset, pendingChunk, pendingLength, copied);
+                pendingLength += copied;
+                offset += copied;
+                length -= copied;
+            }
+        }
+
+        /** Seals the last chunk and writes the index. Documents without data get a single empty chunk. */
+        @Override
+        public void close() throws IOException {
+            try {
+                sealPendingChunk(true);
+                final long indexOffset = position;
+                final ByteBuffer indexData = ByteBuffer.allocate(index.size() * INDEX_ENTRY_SIZE + TRAILER_SIZE);
+                for (long[] entry : index) {
+                    indexData.putLong(entry[0]).putInt((int) entry[1]);
+                }
+                indexData.putInt(index.size()).putLong(indexOffset).putInt(MAGIC);
+                write(indexData.array());
+                output.getFD().sync();
+            } finally {
+                output.close();
+            }
+        }
+
+        private void sealPendingChunk(final boolean lastChunk) throws IOException {
+            final byte[] nonce = new byte[NONCE_SIZE];
+            random.nextBytes(nonce);
+            final byte[] sealed;
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_SIZE * 8, nonce));
+                cipher.updateAAD(associatedData(index.size(), lastChunk));
+                sealed = cipher.doFinal(pendingChunk, 0, pendingLength);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Could not encrypt chunk " + index.size(), e);
+            }
+            index.add(new long[] {position, pendingLength});
+            write(nonce);
+            write(sealed);
+            pendingLength = 0;
+        }
+
+        private void write(@NonNull final byte[] data) throws IOException {
+            output.write(data);
+            position += data.length;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers;
+
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.pspdfkit.document.providers.DataProvider;
+import java.io.File;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Read-only {@link DataProvider} for documents stored in a {@link ChunkedEncryptedContainer}. Every
+ * chunk is authenticated while it is decrypted, so modified documents fail to read instead of
+ * returning tampered data. Reads spanning many chunks decrypt them in parallel on the common fork/join
+ * pool.
+ */
+public class ChunkedEncryptedDataProvider implements DataProvider, Parcelable {
+    public static final Creator<ChunkedEncryptedDataProvider> CREATOR = new Creator<>() {
+        @Override
+        public ChunkedEncryptedDataProvider createFromParcel(Parcel in) {
+            return new ChunkedEncryptedDataProvider(in);
+        }
+
+        @Override
+        public ChunkedEncryptedDataProvider[] newArray(int size) {
+            return new ChunkedEncryptedDataProvider[size];
+        }
+    };
+
+    /** Reads spanning at least this many chunks are decrypted in parallel. */
+    private static final int PARALLEL_CHUNK_THRESHOLD = 4;
+
+    @NonNull
+    private final File containerFile;
+
+    @NonNull
+    private final byte[] key;
+
+    /** Opened on first use, since the provider might be created on the main thread. */
+    @Nullable
+    private volatile ChunkedEncryptedContainer container;
+
+    /** Scratch space for chunks only partially covered by a read. */
+    @NonNull
+    private final ThreadLocal<byte[]> chunkBuffers = new ThreadLocal<>();
+
+    /**
+     * @param containerFile File holding the container.
+     * @param key 256 bit AES key the container was written with.
+     */
+    public ChunkedEncryptedDataProvider(@NonNull final File containerFile, @NonNull final byte[] key) {
+        this.containerFile = containerFile;
+        this.key = key;
+    }
+
+    /**
+     * Note: This will hand over the encryption key to the operating system! In order to keep the key
+     * secret, you should consider persisting/retrieving it from a reliable source.
+     */
+    private ChunkedEncryptedDataProvider(@NonNull final Parcel in) {
+        this(new File(in.readString()), in.createByteArray());
+    }
+
+    @NonNull
+    private ChunkedEncryptedContainer getContainer() throws IOException {
+        ChunkedEncryptedContainer openedContainer = container;
+        if (openedContainer == null) {
+            synchronized (this) {
+                openedContainer = container;
+                if (openedContainer == null) {
+                    openedContainer = ChunkedEncryptedContainer.open(containerFile, key);
+                    container = openedContainer;
+                }
+            }
+        }
+        return openedContainer;
+    }
+
+    @NonNull
+    @Override
+    public byte[] read(long size, long offset) {
+        try {
+            final ChunkedEncryptedContainer container = getContainer();
+            if (offset < 0 || offset >= container.getPlainSize()) return new byte[0];
+            final byte[] decryptedData = new byte[(int) Math.min(size, container.getPlainSize() - offset)];
+            if (decryptedData.length == 0) return decryptedData;
+
+            final int firstChunk = container.findChunk(offset);
+            final int lastChunk = container.findChunk(offset + decryptedData.length - 1);
+            final boolean parallel = lastChunk - firstChunk + 1 >= PARALLEL_CHUNK_THRESHOLD;
+            final DecryptChunksTask task =
+                    new DecryptChunksTask(container, firstChunk, lastChunk, offset, decryptedData, parallel);
+            if (parallel) {
+                ForkJoinPool.commonPool().invoke(task);
+            } else {
+                task.compute();
+            }
+            return decryptedData;
+        } catch (ChunkDecryptionException e) {
+            Log.e(TAG, "Crypto exception: " + e.getCause().getMessage(), e.getCause());
+            return new byte[0];
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open encrypted container: " + e.getMessage(), e);
+            return new byte[0];
+        } catch (Exception e) {
+            Log.e(TAG, "Exception: " + e.getMessage(), e);
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Verifies that the part of the document between {@code offset} and {@code offset + size} wasn't
+     * modified, without verifying the rest of the document.
+     *
+     * @return {@code true} if all chunks holding this part of the document are authentic.
+     */
+    public boolean verify(long offset, long size) {
+        try {
+            final ChunkedEncryptedContainer container = getContainer();
+            final long end = Math.min(offset + size, container.getPlainSize());
+            if (offset < 0 || offset >= end) return true;
+            return container.verify(container.findChunk(offset), container.findChunk(end - 1));
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open encrypted container: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /** Verifies the whole document. */
+    public boolean verify() {
+        return verify(0, getSize());
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return getContainer().getPlainSize();
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open encrypted container: " + e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    @NonNull
+    @Override
+    public String getUid() {
+        return containerFile.getAbsolutePath();
+    }
+
+    @Nullable
+    @Override
+    public String getTitle() {
+        return null;
+    }
+
+    @Override
+    public void release() {
+        final ChunkedEncryptedContainer openedContainer = container;
+        container = null;
+        if (openedContainer != null) {
+            try {
+                openedContainer.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Could not close encrypted container: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeString(containerFile.getAbsolutePath());
+        dest.writeByteArray(key);
+    }
+
+    /** Decrypts the chunks of a read, splitting the chunks in halves until each task has a single chunk. */
+    private class DecryptChunksTask extends RecursiveAction {
+        @NonNull
+        private final ChunkedEncryptedContainer container;
+
+        private final int firstChunk;
+        private final int lastChunk;
+
+        /** Plain offset of {@link #output}'s first byte. */
+        private final long outputOffset;
+
+        @NonNull
+        private final byte[] output;
+
+        /** Whether the halves are forked, otherwise all chunks are decrypted on the calling thread. */
+        private final boolean parallel;
+
+        DecryptChunksTask(
+                @NonNull final ChunkedEncryptedContainer container,
+                final int firstChunk,
+                final int lastChunk,
+                final long outputOffset,
+                @NonNull final byte[] output,
+                final boolean parallel) {
+            this.container = container;
+            this.firstChunk = firstChunk;
+            this.lastChunk = lastChunk;
+            this.outputOffset = outputOffset;
+            this.output = output;
+            this.parallel = parallel;
+        }
+
+        @Override
+        protected void compute() {
+            if (!parallel) {
+                for (int i = firstChunk; i <= lastChunk; i++) {
+                    decryptChunk(i);
+                }
+            } else if (firstChunk == lastChunk) {
+                decryptChunk(firstChunk);
+            } else {
+                final int middle = (firstChunk + lastChunk) >>> 1;
+                invokeAll(
+                        new DecryptChunksTask(container, firstChunk, middle, outputOffset, output, true),
+                        new DecryptChunksTask(container, middle + 1, lastChunk, outputOffset, output, true));
+            }
+        }
+
+        private void decryptChunk(final int chunkIndex) {
+            try {
+                final long chunkStart = container.getChunkPlainOffset(chunkIndex);
+                final int chunkLength = container.getChunkLength(chunkIndex);
+                if (chunkStart >= outputOffset && chunkStart + chunkLength <= outputOffset + output.length) {
+                    // The read covers the whole chunk, so decrypt it straight into the result.
+                    container.decryptChunk(chunkIndex, output, (int) (chunkStart - outputOffset));
+                    return;
+                }
+                final byte[] chunk = getChunkBuffer(container.getMaxChunkLength());
+                container.decryptChunk(chunkIndex, chunk, 0);
+                final long copyStart = Math.max(chunkStart, outputOffset);
+                final long copyEnd = Math.min(chunkStart + chunkLength, outputOffset + output.length);
+                System.arraycopy(
+                        chunk,
+                        (int) (copyStart - chunkStart),
+                        output,
+                        (int) (copyStart - outputOffset),
+                        (int) (copyEnd - copyStart));
+            } catch (IOException | GeneralSecurityException e) {
+                throw new ChunkDecryptionException(e);
+            }
+        }
+    }
+
+    @NonNull
+    private byte[] getChunkBuffer(final int size) {
+        byte[] buffer = chunkBuffers.get();
+        if (buffer == null || buffer.length < size) {
+            buffer = new byte[size];
+            chunkBuffers.set(buffer);
+        }
+        return buffer;
+    }
+
+    /** Carries a failed chunk decryption out of a fork/join task. */
+    private static class ChunkDecryptionException extends RuntimeException {
+        ChunkDecryptionException(@NonNull final Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers;
+
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.pspdfkit.catalog.BuildConfig;
+import com.pspdfkit.catalog.tasks.AssetManifest;
+import com.pspdfkit.catalog.utils.StringUtils;
+import com.pspdfkit.document.providers.AssetDataProvider;
+import com.pspdfkit.document.providers.DataProvider;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only {@link DataProvider} serving a document straight out of the app's APK, without extracting
+ * it first. The asset's region of the APK is memory-mapped, so reads are served from the page cache
+ * and may happen concurrently from any number of threads.
+ *
+ * <p>This only works for assets stored uncompressed (see {@code noCompress} in the app's build file).
+ * Use {@link #forAsset(Context, String)} to fall back to an {@link AssetDataProvider} otherwise.
+ */
+public class MappedAssetDataProvider implements DataProvider, Parcelable {
+    public static final Creator<MappedAssetDataProvider> CREATOR = new Creator<>() {
+        @Override
+        public MappedAssetDataProvider createFromParcel(Parcel in) {
+            return new MappedAssetDataProvider(in);
+        }
+
+        @Override
+        public MappedAssetDataProvider[] newArray(int size) {
+            return new MappedAssetDataProvider[size];
+        }
+    };
+
+    @NonNull
+    private final String assetPath;
+
+    /** Path of the APK holding the asset. */
+    @NonNull
+    private final String apkPath;
+
+    /** Absolute offset of the asset inside the APK. */
+    private final long startOffset;
+
+    private final long length;
+
+    /** Identifies the contents of the asset, see {@link #getUid()}. */
+    @NonNull
+    private final String uid;
+
+    /** Mapped region of the APK, created on first read. */
+    @Nullable
+    private volatile MappedByteBuffer mappedRegion;
+
+    private MappedAssetDataProvider(
+            @NonNull final String assetPath,
+            @NonNull final String apkPath,
+            final long startOffset,
+            final long length,
+            @NonNull final String uid) {
+        this.assetPath = assetPath;
+        this.apkPath = apkPath;
+        this.startOffset = startOffset;
+        this.length = length;
+        this.uid = uid;
+    }
+
+    private MappedAssetDataProvider(@NonNull final Parcel in) {
+        this(in.readString(), in.readString(), in.readLong(), in.readLong(), in.readString());
+    }
+
+    /**
+     * Creates a provider for the asset at {@code assetPath}.
+     *
+     * @param context Context used to locate the asset inside the APK.
+     * @param assetPath Path pointing to a file inside the app's assets.
+     * @return The provider, or {@code null} if the asset is stored compressed and can't be mapped.
+     */
+    @Nullable
+    public static MappedAssetDataProvider create(@NonNull final Context context, @NonNull final String assetPath) {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(assetPath)) {
+            // Assets missing from the manifest may change with any app update, like extracted assets.
+            final String assetHash = AssetManifest.get(context).getHash(assetPath);
+            final String contents = assetHash != null ? assetHash : "version:" + BuildConfig.VERSION_CODE;
+            return new MappedAssetDataProvider(
+                    assetPath,
+                    context.getApplicationInfo().sourceDir,
+                    descriptor.getStartOffset(),
+                    descriptor.getLength(),
+                    StringUtils.sha1(contents + ":" + assetPath));
+        } catch (FileNotFoundException e) {
+            // The asset is compressed, so it has no contiguous region inside the APK.
+            return null;
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open asset " + assetPath + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns a read-only provider for the asset at {@code assetPath}. Uncompressed assets are mapped
+     * directly, all other assets are streamed through an {@link AssetDataProvider}.
+     *
+     * @param context Context used to locate the asset inside the APK.
+     * @param assetPath Path pointing to a file inside the app's assets.
+     */
+    @NonNull
+    public static DataProvider forAsset(@NonNull final Context context, @NonNull final String assetPath) {
+        final MappedAssetDataProvider provider = create(context, assetPath);
+        return provider != null ? provider : new AssetDataProvider(assetPath);
+    }
+
+    @NonNull
+    private MappedByteBuffer map() throws IOException {
+        MappedByteBuffer region = mappedRegion;
+        if (region == null) {
+            synchronized (this) {
+                region = mappedRegion;
+                if (region == null) {
+                    // The mapping stays valid after the channel is closed.
+                    try (FileInputStream input = new FileInputStream(apkPath);
+                            FileChannel channel = input.getChannel()) {
+                        region = channel.map(FileChannel.MapMode.READ_ONLY, startOffset, length);
+                    }
+                    mappedRegion = region;
+                }
+            }
+        }
+        return region;
+    }
+
+    @NonNull
+    @Override
+    public byte[] read(long size, long offset) {
+        if (offset < 0 || offset >= length) return new byte[0];
+        try {
+            final byte[] data = new byte[(int) Math.min(size, length - offset)];
+            // Every read works on its own view of the mapping, so concurrent reads never share a position.
+            final ByteBuffer view = map().duplicate();
+            view.position((int) offset);
+            view.get(data);
+            return data;
+        } catch (IOException e) {
+            Log.e(TAG, "Could not map asset " + assetPath + ": " + e.getMessage(), e);
+            return new byte[0];
+        }
+    }
+
+    @Override
+    public long getSize() {
+        return length;
+    }
+
+    /**
+     * Derived from the asset's hash in the {@link AssetManifest}, or the app's version code for assets
+     * missing from it, so cached renderings never outlive the asset's contents.
+     */
+    @NonNull
+    @Override
+    public String getUid() {
+        return uid;
+    }
+
+    @Nullable
+    @Override
+    public String getTitle() {
+        return null;
+    }
+
+    @Override
+    public void release() {
+        // The mapping is unmapped once it is garbage collected.
+        mappedRegion = null;
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeString(assetPath);
+        dest.writeString(apkPath);
+        dest.writeLong(startOffset);
+        dest.writeLong(length);
+        dest.writeString(uid);
+    }
+}
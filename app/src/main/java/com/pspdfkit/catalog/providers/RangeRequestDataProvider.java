@@ -0,0 +1,607 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers;
+
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.Process;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.pspdfkit.catalog.utils.ProgressCoalescer;
+import com.pspdfkit.catalog.utils.StringUtils;
+import com.pspdfkit.document.providers.DataProvider;
+import com.pspdfkit.document.providers.ProgressDataProvider;
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.subjects.BehaviorSubject;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+
+/**
+ * {@link DataProvider} for remote documents that only downloads what the PDF engine reads. Every
+ * read fetches the blocks it needs with an HTTP {@code Range} request, so the first page of a large
+ * linearized document shows up without waiting for the whole download. Meanwhile, a background
+ * thread fills the remaining gaps in file order.
+ *
+ * <p>Fetched blocks are written into a sparse cache file of the document's full size. A bitmap
+ * next to it records which blocks are present, together with the document's ETag, so a later
+ * provider for the same document only fetches what's still missing. Servers that don't support
+ * range requests are downloaded from start to end, and reads wait until their blocks arrived.
+ */
+public class RangeRequestDataProvider implements ProgressDataProvider, Parcelable {
+    public static final Creator<RangeRequestDataProvider> CREATOR = new Creator<>() {
+        @Override
+        public RangeRequestDataProvider createFromParcel(Parcel in) {
+            return new RangeRequestDataProvider(in);
+        }
+
+        @Override
+        public RangeRequestDataProvider[] newArray(int size) {
+            return new RangeRequestDataProvider[size];
+        }
+    };
+
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    /** Number of blocks fetched per request while filling gaps in the background. */
+    private static final int BACKGROUND_FETCH_BLOCKS = 16;
+
+    private static final int CONNECT_TIMEOUT_MS = 15_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+
+    /** Identifies block map files, "RBLK". */
+    private static final int BLOCK_MAP_MAGIC = 0x52424C4B;
+
+    @NonNull
+    private final String url;
+
+    @NonNull
+    private final File cacheFile;
+
+    private final int blockSize;
+
+    /** Reports the fraction of the document that was fetched. */
+    @NonNull
+    private final BehaviorSubject<Double> progressSubject = BehaviorSubject.create();
+
+    /** State of the opened document, created on first use. */
+    @Nullable
+    private Session session;
+
+    /**
+     * @param url URL of the document.
+     * @param cacheFile File holding the fetched parts of the document. Its block map is stored next
+     *     to it, with a {@code .blocks} suffix.
+     */
+    public RangeRequestDataProvider(@NonNull final String url, @NonNull final File cacheFile) {
+        this(url, cacheFile, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param url URL of the document.
+     * @param cacheFile File holding the fetched parts of the document. Its block map is stored next
+     *     to it, with a {@code .blocks} suffix.
+     * @param blockSize Size of the blocks the document is fetched in.
+     */
+    public RangeRequestDataProvider(@NonNull final String url, @NonNull final File cacheFile, final int blockSize) {
+        this.url = url;
+        this.cacheFile = cacheFile;
+        this.blockSize = blockSize;
+    }
+
+    private RangeRequestDataProvider(@NonNull final Parcel in) {
+        this(in.readString(), new File(in.readString()), in.readInt());
+    }
+
+    @NonNull
+    private synchronized Session getSession() throws IOException {
+        if (session == null) {
+            session = new Session();
+        }
+        return session;
+    }
+
+    @NonNull
+    @Override
+    public byte[] read(long size, long offset) {
+        try {
+            return getSession().read(size, offset);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not read " + url + ": " + e.getMessage(), e);
+            return new byte[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new byte[0];
+        }
+    }
+
+    @Override
+    public long getSize() {
+        try {
+            return getSession().size;
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open " + url + ": " + e.getMessage(), e);
+            return DataProvider.FILE_SIZE_UNKNOWN;
+        }
+    }
+
+    @NonNull
+    @Override
+    public Flowable<Double> observeProgress() {
+        // Progress changes with every received buffer, but the UI only needs it once per frame.
+        return progressSubject.toFlowable(BackpressureStrategy.LATEST).compose(ProgressCoalescer.perFrame());
+    }
+
+    /** Returns whether the whole document was fetched. */
+    public boolean isComplete() {
+        try {
+            return getSession().isComplete();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @NonNull
+    @Override
+    public String getUid() {
+        return StringUtils.sha1(url);
+    }
+
+    @Nullable
+    @Override
+    public String getTitle() {
+        return null;
+    }
+
+    @Override
+    public void release() {
+        final Session releasedSession;
+        synchronized (this) {
+            releasedSession = session;
+            session = null;
+        }
+        if (releasedSession != null) releasedSession.close();
+    }
+
+    @Override
+    public int describeContents() {
+        return 0;
+    }
+
+    @Override
+    public void writeToParcel(Parcel dest, int flags) {
+        dest.writeString(url);
+        dest.writeString(cacheFile.getAbsolutePath());
+        dest.writeInt(blockSize);
+    }
+
+    @NonNull
+    private File getBlockMapFile() {
+        return new File(cacheFile.getPath() + ".blocks");
+    }
+
+    @NonNull
+    private HttpURLConnection openConnection(final long start, final long end, @Nullable final String validator)
+            throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        // Ranges refer to the document's bytes, so the response must not be compressed.
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        connection.setRequestProperty("Range", "bytes=" + start + "-" + end);
+        if (validator != null) {
+            // If the document changed, the server sends all of it, instead of a range of the new version.
+            connection.setRequestProperty("If-Range", validator);
+        }
+        return connection;
+    }
+
+    /** Returns the ETag of a response, or its modification date if it has none. */
+    @Nullable
+    private static String getValidator(@NonNull final HttpURLConnection connection) {
+        final String etag = connection.getHeaderField("ETag");
+        return etag != null ? etag : connection.getHeaderField("Last-Modified");
+    }
+
+    /** Parses the document size out of a {@code Content-Range: bytes start-end/size} header. */
+    private static long parseTotalSize(@Nullable final String contentRange) throws IOException {
+        final int separator = contentRange != null ? contentRange.lastIndexOf('/') : -1;
+        if (separator < 0) throw new IOException("Missing Content-Range in partial response.");
+        try {
+            return Long.parseLong(contentRange.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Server didn't report the document size: " + contentRange);
+        }
+    }
+
+    private static void readFully(@NonNull final InputStream input, @NonNull final byte[] buffer, final int length)
+            throws IOException {
+        int read = 0;
+        while (read < length) {
+            final int count = input.read(buffer, read, length - read);
+            if (count < 0) throw new IOException("Response ended early.");
+            read += count;
+        }
+    }
+
+    /**
+     * A document opened by the provider. Blocks are claimed before they are fetched, so every block
+     * is only requested once, no matter how many reads are waiting for it.
+     */
+    private class Session {
+        final long size;
+        final int blockCount;
+
+        @NonNull
+        private final RandomAccessFile file;
+
+        @NonNull
+        private final FileChannel channel;
+
+        /** ETag or modification date of the document, {@code null} if the server sent neither. */
+        @Nullable
+        private final String validator;
+
+        /** Whether the server answers range requests. Otherwise the document is streamed in order. */
+        private final boolean rangesSupported;
+
+        // All fields below are guarded by this session.
+        @NonNull
+        private final BitSet fetched;
+
+        @NonNull
+        private final BitSet inFlight = new BitSet();
+
+        private boolean closed;
+
+        Session() throws IOException {
+            final BlockMap storedBlocks = BlockMap.read(getBlockMapFile());
+            final HttpURLConnection connection;
+            final int status;
+            try {
+                connection = openConnection(0, blockSize - 1, storedBlocks != null ? storedBlocks.validator : null);
+                status = connection.getResponseCode();
+            } catch (IOException e) {
+                if (storedBlocks == null || !storedBlocks.isComplete(blockSize) || !cacheFile.exists()) throw e;
+                // Offline, but the document was fetched completely before.
+                Log.i(TAG, "Using cached copy of " + url + ", the server is unreachable: " + e.getMessage());
+                size = storedBlocks.size;
+                blockCount = storedBlocks.blockCount(blockSize);
+                validator = storedBlocks.validator;
+                rangesSupported = true;
+                fetched = storedBlocks.blocks;
+                file = new RandomAccessFile(cacheFile, "rw");
+                channel = file.getChannel();
+                publishProgress();
+                return;
+            }
+
+            if (status == HttpURLConnection.HTTP_PARTIAL) {
+                size = parseTotalSize(connection.getHeaderField("Content-Range"));
+                rangesSupported = true;
+            } else if (status == HttpURLConnection.HTTP_OK) {
+                size = connection.getContentLengthLong();
+                rangesSupported = false;
+                if (size < 0) {
+                    connection.disconnect();
+                    throw new IOException("Server supports neither range requests nor reports the document size.");
+                }
+            } else {
+                connection.disconnect();
+                throw new IOException("Unexpected response " + status + " for " + url);
+            }
+            validator = getValidator(connection);
+            blockCount = (int) ((size + blockSize - 1) / blockSize);
+
+            final boolean reuseBlocks = rangesSupported
+                    && storedBlocks != null
+                    && validator != null
+                    && validator.equals(storedBlocks.validator)
+                    && storedBlocks.size == size
+                    && storedBlocks.blockSize == blockSize
+                    && cacheFile.exists();
+            fetched = reuseBlocks ? storedBlocks.blocks : new BitSet(blockCount);
+            file = new RandomAccessFile(cacheFile, "rw");
+            try {
+                channel = file.getChannel();
+                file.setLength(size);
+                if (rangesSupported) {
+                    inFlight.set(0);
+                    try {
+                        receiveBlocks(connection, 0, 0);
+                    } finally {
+                        releaseClaims(0, 0);
+                        connection.disconnect();
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // The session never starts, so nothing else will close the cache file.
+                file.close();
+                if (!rangesSupported) connection.disconnect();
+                throw e;
+            }
+
+            final Thread filler;
+            if (rangesSupported) {
+                filler = new Thread(this::fillGaps, "RangeRequestDataProvider");
+            } else {
+                // The whole document arrives in order, so every block is in flight from the start.
+                inFlight.set(0, blockCount);
+                filler = new Thread(
+                        () -> {
+                            try {
+                                receiveBlocks(connection, 0, blockCount - 1);
+                            } catch (IOException e) {
+                                Log.w(TAG, "Could not download " + url + ": " + e.getMessage(), e);
+                            } finally {
+                                releaseClaims(0, blockCount - 1);
+                                connection.disconnect();
+                            }
+                        },
+                        "RangeRequestDataProvider");
+            }
+            publishProgress();
+            filler.setDaemon(true);
+            filler.start();
+        }
+
+        @NonNull
+        byte[] read(final long size, final long offset) throws IOException, InterruptedException {
+            if (offset < 0 || offset >= this.size) return new byte[0];
+            final byte[] data = new byte[(int) Math.min(size, this.size - offset)];
+            if (data.length == 0) return data;
+            awaitBlocks((int) (offset / blockSize), (int) ((offset + data.length - 1) / blockSize));
+
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) break;
+            }
+            return data;
+        }
+
+        synchronized boolean isComplete() {
+            return fetched.cardinality() == blockCount;
+        }
+
+        /** Waits until all blocks between {@code first} and {@code last} are fetched, fetching unclaimed ones itself. */
+        private void awaitBlocks(final int first, final int last) throws IOException, InterruptedException {
+            while (true) {
+                final int runStart;
+                int runEnd;
+                synchronized (this) {
+                    if (closed) throw new IOException("The provider was released.");
+                    runStart = nextUnclaimedBlock(first, last);
+                    if (runStart < 0) {
+                        final int missing = fetched.nextClearBit(first);
+                        if (missing > last) return;
+                        // Another thread is fetching the missing blocks.
+                        wait();
+                        continue;
+                    }
+                    runEnd = runStart;
+                    while (runEnd < last && !fetched.get(runEnd + 1) && !inFlight.get(runEnd + 1)) runEnd++;
+                    inFlight.set(runStart, runEnd + 1);
+                }
+                fetchBlocks(runStart, runEnd);
+            }
+        }
+
+        /** Returns the first block between {@code first} and {@code last} that is neither fetched nor in flight. */
+        private int nextUnclaimedBlock(final int first, final int last) {
+            for (int block = fetched.nextClearBit(first); block <= last; block = fetched.nextClearBit(block + 1)) {
+                if (!inFlight.get(block)) return block;
+            }
+            return -1;
+        }
+
+        /** Fetches the document in order, skipping everything that reads already fetched. */
+        private void fillGaps() {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            try {
+                while (true) {
+                    final int runStart;
+                    int runEnd;
+                    synchronized (this) {
+                        if (closed) return;
+                        runStart = nextUnclaimedBlock(0, blockCount - 1);
+                        if (runStart < 0) {
+                            if (fetched.cardinality() == blockCount) break;
+                            wait();
+                            continue;
+                        }
+                        runEnd = runStart;
+                        while (runEnd < blockCount - 1
+                                && runEnd - runStart + 1 < BACKGROUND_FETCH_BLOCKS
+                                && !fetched.get(runEnd + 1)
+                                && !inFlight.get(runEnd + 1)) {
+                            runEnd++;
+                        }
+                        inFlight.set(runStart, runEnd + 1);
+                    }
+                    fetchBlocks(runStart, runEnd);
+                    saveBlockMap();
+                }
+                saveBlockMap();
+                Log.i(TAG, "Finished fetching " + url);
+            } catch (IOException e) {
+                // Reads keep fetching the blocks they need.
+                Log.w(TAG, "Stopped fetching " + url + " in the background: " + e.getMessage(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** Fetches the claimed blocks from {@code first} to {@code last} with a single range request. */
+        private void fetchBlocks(final int first, final int last) throws IOException {
+            HttpURLConnection connection = null;
+            try {
+                final long start = (long) first * blockSize;
+                final long end = Math.min(size, (long) (last + 1) * blockSize) - 1;
+                connection = openConnection(start, end, validator);
+                final int status = connection.getResponseCode();
+                if (status != HttpURLConnection.HTTP_PARTIAL) {
+                    throw new IOException("Expected a partial response, got " + status + ". The document might have"
+                            + " changed on the server.");
+                }
+                receiveBlocks(connection, first, last);
+            } finally {
+                releaseClaims(first, last);
+                if (connection != null) connection.disconnect();
+            }
+        }
+
+        /** Writes the response body into the cache file, making every block available as soon as it arrived. */
+        private void receiveBlocks(@NonNull final HttpURLConnection connection, final int first, final int last)
+                throws IOException {
+            final byte[] buffer = new byte[blockSize];
+            try (InputStream input = connection.getInputStream()) {
+                for (int block = first; block <= last; block++) {
+                    final long blockStart = (long) block * blockSize;
+                    final int length = (int) Math.min(blockSize, size - blockStart);
+                    readFully(input, buffer, length);
+                    final ByteBuffer blockData = ByteBuffer.wrap(buffer, 0, length);
+                    while (blockData.hasRemaining()) {
+                        channel.write(blockData, blockStart + blockData.position());
+                    }
+                    synchronized (this) {
+                        fetched.set(block);
+                        inFlight.clear(block);
+                        notifyAll();
+                    }
+                    publishProgress();
+                }
+            }
+        }
+
+        /** Returns blocks that couldn't be fetched, so another read can try again. */
+        private synchronized void releaseClaims(final int first, final int last) {
+            inFlight.clear(first, last + 1);
+            notifyAll();
+        }
+
+        private void publishProgress() {
+            final int fetchedBlocks;
+            synchronized (this) {
+                fetchedBlocks = fetched.cardinality();
+            }
+            progressSubject.onNext(blockCount == 0 ? 1.0 : (double) fetchedBlocks / blockCount);
+            if (fetchedBlocks == blockCount) progressSubject.onComplete();
+        }
+
+        /**
+         * Stores which blocks are fetched. The cache file is synced first, so the block map never
+         * claims blocks that could be lost.
+         */
+        private void saveBlockMap() {
+            if (validator == null) return;
+            final BitSet blocks;
+            synchronized (this) {
+                if (closed) return;
+                blocks = (BitSet) fetched.clone();
+            }
+            try {
+                channel.force(false);
+                new BlockMap(size, blockSize, validator, blocks).write(getBlockMapFile());
+            } catch (IOException e) {
+                Log.w(TAG, "Could not save block map of " + url + ": " + e.getMessage(), e);
+            }
+        }
+
+        void close() {
+            saveBlockMap();
+            synchronized (this) {
+                closed = true;
+                notifyAll();
+            }
+            try {
+                file.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Could not close cache file: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /** Contents of a block map file. */
+    private static class BlockMap {
+        final long size;
+        final int blockSize;
+
+        @NonNull
+        final String validator;
+
+        @NonNull
+        final BitSet blocks;
+
+        BlockMap(final long size, final int blockSize, @NonNull final String validator, @NonNull final BitSet blocks) {
+            this.size = size;
+            this.blockSize = blockSize;
+            this.validator = validator;
+            this.blocks = blocks;
+        }
+
+        int blockCount(final int blockSize) {
+            return (int) ((size + blockSize - 1) / blockSize);
+        }
+
+        boolean isComplete(final int blockSize) {
+            return this.blockSize == blockSize && blocks.cardinality() == blockCount(blockSize);
+        }
+
+        /** Returns the stored block map, or {@code null} if there is none or it can't be read. */
+        @Nullable
+        static BlockMap read(@NonNull final File file) {
+            if (!file.exists()) return null;
+            try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+                if (input.readInt() != BLOCK_MAP_MAGIC) return null;
+                final long size = input.readLong();
+                final int blockSize = input.readInt();
+                final String validator = input.readUTF();
+                final byte[] blocks = new byte[input.readInt()];
+                input.readFully(blocks);
+                return new BlockMap(size, blockSize, validator, BitSet.valueOf(blocks));
+            } catch (IOException e) {
+                Log.w(TAG, "Ignoring unreadable block map " + file + ": " + e.getMessage());
+                return null;
+            }
+        }
+
+        /** Replaces the block map file, so a crash never leaves a partially written map behind. */
+        void write(@NonNull final File file) throws IOException {
+            final File temporaryFile = new File(file.getPath() + ".tmp");
+            try (FileOutputStream output = new FileOutputStream(temporaryFile);
+                    DataOutputStream data = new DataOutputStream(output)) {
+                data.writeInt(BLOCK_MAP_MAGIC);
+                data.writeLong(size);
+                data.writeInt(blockSize);
+                data.writeUTF(validator);
+                final byte[] blockBytes = blocks.toByteArray();
+                data.writeInt(blockBytes.length);
+                data.write(blockBytes);
+                data.flush();
+                output.getFD().sync();
+            }
+            if (!temporaryFile.renameTo(file)) {
+                throw new IOException("Could not replace " + file);
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers;
+
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.pspdfkit.document.providers.DataProvider;
+import com.pspdfkit.document.providers.InputStreamDataProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@link InputStreamDataProvider} that keeps recently read windows of the stream in memory. A stream
+ * can only move forward, so every read before the current stream position has to reopen the stream
+ * and skip to the requested offset. The PDF engine does this a lot, since the cross-reference table
+ * it keeps coming back to is stored at the end of the file. Reads served from a cached window don't
+ * touch the stream at all.
+ *
+ * <p>When windows are read one after another, the following windows are read ahead, doubling the
+ * number of windows with every sequential miss, so streaming through a document takes fewer, larger
+ * stream reads.
+ *
+ * <p>Subclasses only implement {@link #openInputStream()}, which must return a fresh stream
+ * positioned at the start of the document on every call.
+ */
+public abstract class WindowedInputStreamDataProvider extends InputStreamDataProvider {
+    /** Size of the cached windows. Windows are aligned to multiples of their size. */
+    public static final int WINDOW_SIZE = 64 * 1024;
+
+    /** Maximum number of windows kept in memory. */
+    private static final int MAX_WINDOWS = 32;
+
+    /** Maximum number of windows read ahead after a sequential miss. */
+    private static final int MAX_READ_AHEAD_WINDOWS = 8;
+
+    /** Cached windows by index, in access order. Windows at the end of the document may be shorter. */
+    private final LinkedHashMap<Long, byte[]> windows = new LinkedHashMap<>(MAX_WINDOWS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > MAX_WINDOWS;
+        }
+    };
+
+    @Nullable
+    private InputStream stream;
+
+    /** Offset of the next byte read from {@link #stream}. */
+    private long streamPosition;
+
+    /** Index of the last window read from the stream, used to detect sequential reads. */
+    private long lastLoadedWindow = -1;
+
+    private int readAheadWindows;
+
+    private long streamOpenCount;
+    private long windowHitCount;
+    private long windowMissCount;
+
+    @NonNull
+    @Override
+    public synchronized byte[] read(long size, long offset) {
+        if (offset < 0 || size <= 0) return new byte[0];
+        final long documentSize = getSize();
+        final long readableSize =
+                documentSize == DataProvider.FILE_SIZE_UNKNOWN ? size : Math.min(size, documentSize - offset);
+        if (readableSize <= 0) return new byte[0];
+
+        final byte[] data = new byte[(int) readableSize];
+        int copied = 0;
+        try {
+            while (copied < data.length) {
+                final long position = offset + copied;
+                final long windowIndex = position / WINDOW_SIZE;
+                final byte[] window = getWindow(windowIndex);
+                final int windowOffset = (int) (position - windowIndex * WINDOW_SIZE);
+                // A window ending before the requested position holds the end of the document.
+                if (windowOffset >= window.length) break;
+                final int count = Math.min(window.length - windowOffset, data.length - copied);
+                System.arraycopy(window, windowOffset, data, copied, count);
+                copied += count;
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "Could not read from input stream: " + e.getMessage(), e);
+            return new byte[0];
+        }
+        return copied == data.length ? data : Arrays.copyOf(data, copied);
+    }
+
+    @NonNull
+    private byte[] getWindow(final long windowIndex) throws Exception {
+        final byte[] cachedWindow = windows.get(windowIndex);
+        if (cachedWindow != null) {
+            windowHitCount++;
+            return cachedWindow;
+        }
+        windowMissCount++;
+
+        readAheadWindows = windowIndex == lastLoadedWindow + 1
+                ? Math.min(Math.max(1, readAheadWindows * 2), MAX_READ_AHEAD_WINDOWS)
+                : 0;
+        final byte[] window = loadWindow(windowIndex);
+        // Reading ahead continues the stream where this window ended, so it never has to reopen it.
+        byte[] lastWindow = window;
+        for (int i = 1; i <= readAheadWindows && lastWindow.length == WINDOW_SIZE; i++) {
+            if (windows.containsKey(windowIndex + i)) break;
+            try {
+                lastWindow = loadWindow(windowIndex + i);
+            } catch (Exception e) {
+                // The requested window is already loaded, so only the read-ahead is lost.
+                Log.w(TAG, "Could not read ahead from input stream: " + e.getMessage(), e);
+                break;
+            }
+        }
+        return window;
+    }
+
+    /** Reads a window from the stream, reopening the stream if it already moved past the window. */
+    @NonNull
+    private byte[] loadWindow(final long windowIndex) throws Exception {
+        final long windowStart = windowIndex * WINDOW_SIZE;
+        if (stream == null || streamPosition > windowStart) {
+            closeStream();
+            stream = openInputStream();
+            streamPosition = 0;
+            streamOpenCount++;
+        }
+        final InputStream stream = this.stream;
+
+        final byte[] buffer = new byte[WINDOW_SIZE];
+        int length = 0;
+        try {
+            while (streamPosition < windowStart) {
+                final long skipped = stream.skip(windowStart - streamPosition);
+                if (skipped > 0) {
+                    streamPosition += skipped;
+                } else if (stream.read() >= 0) {
+                    // Streams may refuse to skip without being at their end, so make progress by reading.
+                    streamPosition++;
+                } else {
+                    return new byte[0];
+                }
+            }
+
+            while (length < buffer.length) {
+                final int read = stream.read(buffer, length, buffer.length - length);
+                if (read < 0) break;
+                length += read;
+            }
+        } catch (Exception e) {
+            // The stream may have moved past streamPosition, so the next read has to reopen it.
+            closeStream();
+            throw e;
+        }
+        streamPosition += length;
+
+        final byte[] window = length == buffer.length ? buffer : Arrays.copyOf(buffer, length);
+        windows.put(windowIndex, window);
+        lastLoadedWindow = windowIndex;
+        return window;
+    }
+
+    private void closeStream() {
+        if (stream == null) return;
+        try {
+            stream.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not close input stream: " + e.getMessage(), e);
+        }
+        stream = null;
+    }
+
+    /** Returns how many times the stream was opened, including the first time. */
+    public synchronized long getStreamOpenCount() {
+        return streamOpenCount;
+    }
+
+    /** Returns how many window reads were served from memory. */
+    public synchronized long getWindowHitCount() {
+        return windowHitCount;
+    }
+
+    /** Returns how many window reads had to read from the stream, not counting windows read ahead. */
+    public synchronized long getWindowMissCount() {
+        return windowMissCount;
+    }
+
+    @Override
+    public void release() {
+        synchronized (this) {
+            closeStream();
+            windows.clear();
+            lastLoadedWindow = -1;
+            readAheadWindows = 0;
+            Log.d(
+                    TAG,
+                    "Released " + getClass().getSimpleName() + ", opened stream " + streamOpenCount + " times, window hits "
+                            + windowHitCount + ", misses " + windowMissCount);
+        }
+        super.release();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+
+/**
+ * Copy primitives used for extracting assets. {@link #transfer} lets the kernel copy a file region
+ * without moving the bytes through the Java heap, while {@link #copy} is the buffered stream fallback
+ * for assets that are stored compressed inside the APK.
+ */
+public final class AssetCopy {
+    /** Buffer size of the stream fallback. */
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Number of bytes transferred per {@link FileChannel#transferTo} call, so progress can be reported. */
+    static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    private AssetCopy() {}
+
+    /**
+     * Copies {@code length} bytes starting at {@code offset} of {@code source} to the current position
+     * of {@code destination}, using {@link FileChannel#transferTo}.
+     *
+     * @param source Channel to copy from, e.g. the APK holding an uncompressed asset.
+     * @param offset Absolute position of the first byte to copy inside {@code source}.
+     * @param length Number of bytes to copy.
+     * @param destination Channel to copy to.
+     * @param listener Optional listener notified after every transferred chunk.
+     */
+    public static void transfer(
+            @NonNull final FileChannel source,
+            final long offset,
+            final long length,
+            @NonNull final FileChannel destination,
+            @Nullable final AssetStore.CopyProgressListener listener)
+            throws IOException {
+        long copied = 0;
+        while (copied < length) {
+            final long transferred =
+                    source.transferTo(offset + copied, Math.min(TRANSFER_CHUNK_SIZE, length - copied), destination);
+            if (transferred <= 0) {
+                throw new IOException("Unexpected end of file after " + copied + " of " + length + " bytes.");
+            }
+            copied += transferred;
+            if (listener != null) listener.onProgress(copied, length);
+        }
+    }
+
+    /**
+     * Copies {@code input} to {@code output} through a heap buffer.
+     *
+     * @param input Stream to copy from.
+     * @param output Stream to copy to.
+     * @param totalBytes Size of {@code input}, only used for reporting progress.
+     * @param listener Optional listener notified after every copied buffer.
+     * @return Number of copied bytes.
+     */
+    public static long copy(
+            @NonNull final InputStream input,
+            @NonNull final OutputStream output,
+            final long totalBytes,
+            @Nullable final AssetStore.CopyProgressListener listener)
+            throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long copied = 0;
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            output.write(buffer, 0, read);
+            copied += read;
+            if (listener != null) listener.onProgress(copied, totalBytes);
+        }
+        return copied;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SHA-1 checksums of all bundled assets. The manifest is generated at build time by the
+ * {@code generateAssetManifest} Gradle task in {@code sha1sum} format, and is read once per process.
+ */
+public final class AssetManifest {
+    private static final String TAG = "AssetManifest";
+
+    /** Name of the generated manifest inside the app's assets. */
+    static final String MANIFEST_ASSET = "asset-manifest.txt";
+
+    /** Length of a hex encoded SHA-1 hash. */
+    private static final int HASH_LENGTH = 40;
+
+    /** Separator between hash and path, as written by {@code sha1sum}. */
+    private static final String SEPARATOR = "  ";
+
+    @Nullable
+    private static volatile AssetManifest instance;
+
+    /** Maps asset paths to the hex encoded SHA-1 of their contents. */
+    @NonNull
+    private final Map<String, String> hashes;
+
+    private AssetManifest(@NonNull final Map<String, String> hashes) {
+        this.hashes = hashes;
+    }
+
+    /** Returns the manifest of the app's assets, loading it on first access. */
+    @WorkerThread
+    @NonNull
+    public static AssetManifest get(@NonNull final Context context) {
+        AssetManifest manifest = instance;
+        if (manifest == null) {
+            synchronized (AssetManifest.class) {
+                manifest = instance;
+                if (manifest == null) {
+                    manifest = new AssetManifest(load(context));
+                    instance = manifest;
+                }
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Returns the content hash of {@code assetPath}, or {@code null} if the asset is not part of the
+     * manifest.
+     */
+    @Nullable
+    public String getHash(@NonNull final String assetPath) {
+        return hashes.get(assetPath);
+    }
+
+    /** Returns the content hashes of all bundled assets. */
+    @NonNull
+    public Collection<String> getHashes() {
+        return Collections.unmodifiableCollection(hashes.values());
+    }
+
+    /** Returns {@code true} if the manifest could not be loaded or lists no assets. */
+    public boolean isEmpty() {
+        return hashes.isEmpty();
+    }
+
+    @NonNull
+    private static Map<String, String> load(@NonNull final Context context) {
+        final Map<String, String> hashes = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(context.getAssets().open(MANIFEST_ASSET), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.length() <= HASH_LENGTH + SEPARATOR.length()) continue;
+                hashes.put(line.substring(HASH_LENGTH + SEPARATOR.length()), line.substring(0, HASH_LENGTH));
+            }
+        } catch (IOException e) {
+            // Without a manifest, assets are only extracted when they are missing on the device.
+            Log.w(TAG, "Could not read asset manifest: " + e.getMessage());
+        }
+        return hashes;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks
+
+import android.content.Context
+import android.os.BatteryManager
+import android.os.Looper
+import android.os.MessageQueue
+import android.os.PowerManager
+import android.os.Process
+import android.util.Log
+import androidx.datastore.preferences.core.Preferences
+import androidx.datastore.preferences.core.edit
+import androidx.datastore.preferences.core.intPreferencesKey
+import com.pspdfkit.catalog.utils.exampleUsageDataStore
+import io.reactivex.rxjava3.core.Single
+import io.reactivex.rxjava3.schedulers.Schedulers
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.SupervisorJob
+import kotlinx.coroutines.asCoroutineDispatcher
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.suspendCancellableCoroutine
+import java.io.File
+import java.io.FileInputStream
+import java.nio.ByteBuffer
+import java.util.concurrent.Executors
+import kotlin.coroutines.resume
+import kotlin.coroutines.resumeWithException
+
+/**
+ * Prepares the assets of the most frequently launched examples in the background, so tapping a popular example
+ * doesn't have to wait for its document to be extracted.
+ *
+ * Every extraction requested by an example is counted in [exampleUsageDataStore]. After app startup, once the main
+ * thread is idle, the most used assets are extracted and read once, so they are also in the page cache when the
+ * example opens them. Prewarming runs on a lowest-priority thread and is skipped while the battery is low, in power
+ * save mode, or when storage is running out.
+ */
+object AssetPrewarmer {
+    private const val TAG = "AssetPrewarmer"
+
+    /** Number of most frequently used assets prepared after startup. */
+    private const val PREWARM_COUNT = 3
+
+    /** Assets extracted less often than this are not worth preparing ahead of time. */
+    private const val MIN_USAGE_COUNT = 2
+
+    /** Time waited after the main thread first became idle, so prewarming doesn't compete with app startup. */
+    private const val IDLE_DELAY_MS = 3_000L
+
+    private const val MIN_BATTERY_PERCENT = 20
+    private const val MIN_FREE_STORAGE_BYTES = 256L * 1024 * 1024
+
+    /** Larger files are extracted, but not read into the page cache. */
+    private const val MAX_PAGE_CACHE_BYTES = 32L * 1024 * 1024
+
+    private const val KEY_SEPARATOR = "\n"
+
+    private val recordingScope = CoroutineScope(SupervisorJob() + Dispatchers.IO)
+
+    private val prewarmExecutor =
+        Executors.newSingleThreadExecutor { runnable ->
+            Thread(
+                {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_LOWEST)
+                    runnable.run()
+                },
+                TAG,
+            ).apply { isDaemon = true }
+        }
+
+    /** Counts an extraction of [request]. Requests for explicit output files aren't tied to an example and are ignored. */
+    @JvmStatic
+    fun recordExtraction(
+        context: Context,
+        request: ExtractAssetTask.AssetRequest,
+    ) {
+        val exampleTitle = request.exampleTitle ?: return
+        val key =
+            intPreferencesKey(
+                listOf(request.assetPath, exampleTitle, request.fileExtension.orEmpty(), request.overwriteExisting.toString())
+                    .joinToString(KEY_SEPARATOR),
+            )
+        val applicationContext = context.applicationContext
+        recordingScope.launch {
+            applicationContext.exampleUsageDataStore.edit { it[key] = (it[key] ?: 0) + 1 }
+        }
+    }
+
+    /**
+     * Starts prewarming the most frequently used assets once the main thread is idle.
+     *
+     * @return The prewarming job. Cancelling it stops prewarming after the asset currently being prepared.
+     */
+    fun start(
+        context: Context,
+        scope: CoroutineScope,
+    ): Job =
+        scope.launch(prewarmExecutor.asCoroutineDispatcher()) {
+            awaitMainThreadIdle()
+            delay(IDLE_DELAY_MS)
+
+            val requests = mostUsedRequests(context.exampleUsageDataStore.data.first())
+            for (request in requests) {
+                ensureActive()
+                if (!canPrewarm(context)) {
+                    Log.d(TAG, "Stopped prewarming, the device is low on battery or storage.")
+                    return@launch
+                }
+                try {
+                    val file = ExtractAssetTask.prewarm(context, request, Schedulers.from(prewarmExecutor)).await()
+                    warmPageCache(file)
+                } catch (e: CancellationException) {
+                    throw e
+                } catch (e: Exception) {
+                    Log.w(TAG, "Could not prewarm ${request.assetPath}", e)
+                }
+            }
+        }
+
+    private fun mostUsedRequests(usage: Preferences): List<ExtractAssetTask.AssetRequest> =
+        usage
+            .asMap()
+            .mapNotNull { (key, count) ->
+                val parts = key.name.split(KEY_SEPARATOR)
+                if (parts.size != 4 || count !is Int || count < MIN_USAGE_COUNT) return@mapNotNull null
+                val (assetPath, exampleTitle, fileExtension, overwriteExisting) = parts
+                val request =
+                    ExtractAssetTask.AssetRequest(assetPath, exampleTitle, overwriteExisting.toBoolean(), fileExtension.ifEmpty { null })
+                count to request
+            }.sortedByDescending { it.first }
+            .take(PREWARM_COUNT)
+            .map { it.second }
+
+    private fun canPrewarm(context: Context): Boolean {
+        val powerManager = context.getSystemService(PowerManager::class.java)
+        if (powerManager?.isPowerSaveMode == true) return false
+        val batteryManager = context.getSystemService(BatteryManager::class.java)
+        if (batteryManager != null && !batteryManager.isCharging &&
+            batteryManager.getIntProperty(BatteryManager.BATTERY_PROPERTY_CAPACITY) < MIN_BATTERY_PERCENT
+        ) {
+            return false
+        }
+        return context.filesDir.usableSpace >= MIN_FREE_STORAGE_BYTES
+    }
+
+    /** Reads [file] once, so the example's first page renders from the page cache instead of storage. */
+    private fun warmPageCache(file: File) {
+        if (file.length() > MAX_PAGE_CACHE_BYTES) return
+        FileInputStream(file).channel.use { channel ->
+            val buffer = ByteBuffer.allocateDirect(AssetCopy.BUFFER_SIZE)
+            while (channel.read(buffer) >= 0) buffer.clear()
+        }
+    }
+
+    private suspend fun awaitMainThreadIdle() =
+        suspendCancellableCoroutine { continuation ->
+            val queue = Looper.getMainLooper().queue
+            val idleHandler =
+                MessageQueue.IdleHandler {
+                    continuation.resume(Unit)
+                    false
+                }
+            queue.addIdleHandler(idleHandler)
+            continuation.invokeOnCancellation { queue.removeIdleHandler(idleHandler) }
+        }
+
+    /** Waits for this single without blocking, disposing it when the coroutine is cancelled. */
+    private suspend fun <T : Any> Single<T>.await(): T =
+        suspendCancellableCoroutine { continuation ->
+            val disposable = subscribe({ continuation.resume(it) }, { continuation.resumeWithException(it) })
+            continuation.invokeOnCancellation { disposable.dispose() }
+        }
+}
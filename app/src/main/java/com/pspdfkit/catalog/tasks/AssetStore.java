@@ -0,0 +1,414 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.res.AssetFileDescriptor;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import com.pspdfkit.catalog.utils.StringUtils;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Content-addressed store that keeps a single extracted copy ("blob") of every asset, named after the
+ * SHA-1 of its contents. Examples that only read a document share the blob through a {@link Lease},
+ * while examples that modify their document get a private clone via {@link #cloneTo(String, File)}.
+ *
+ * <p>Blobs are reference counted: {@link #prune()} never deletes a blob that is still leased.
+ */
+@SuppressWarnings("ResultOfMethodCallIgnored")
+public final class AssetStore {
+    private static final String PREFS_NAME = "PSPDFCatalog.AssetStore";
+
+    /** Directory inside the app's files directory holding all blobs. */
+    private static final String STORE_DIRECTORY = "asset-store";
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    @Nullable
+    private static volatile AssetStore instance;
+
+    @NonNull
+    private final Context context;
+
+    @NonNull
+    private final File storeDirectory;
+
+    /** Maps asset paths to the file name of their blob inside {@link #storeDirectory}. */
+    @NonNull
+    private final SharedPreferences index;
+
+    /** Number of outstanding leases per blob file name. */
+    @NonNull
+    private final Map<String, AtomicInteger> references = new ConcurrentHashMap<>();
+
+    /** Per-asset locks, so the same asset is never copied into the store twice in parallel. */
+    @NonNull
+    private final Map<String, Object> assetLocks = new ConcurrentHashMap<>();
+
+    private AssetStore(@NonNull final Context context) {
+        this.context = context.getApplicationContext();
+        this.storeDirectory = new File(this.context.getFilesDir(), STORE_DIRECTORY);
+        this.index = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /** Returns the process-wide asset store. */
+    @NonNull
+    public static AssetStore get(@NonNull final Context context) {
+        AssetStore store = instance;
+        if (store == null) {
+            synchronized (AssetStore.class) {
+                store = instance;
+                if (store == null) {
+                    store = new AssetStore(context);
+                    instance = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Returns a lease on the shared, read-only blob of {@code assetPath}, copying the asset into the
+     * store first if required. The blob stays on disk at least until the lease is closed.
+     *
+     * @param assetPath Path pointing to a file inside the app's assets.
+     * @return Lease holding the shared file. Must be closed once the file is no longer used.
+     */
+    @WorkerThread
+    @NonNull
+    public Lease acquire(@NonNull final String assetPath) throws IOException {
+        return acquire(assetPath, null);
+    }
+
+    /**
+     * Returns a lease on the shared, read-only blob of {@code assetPath}, copying the asset into the
+     * store first if required.
+     *
+     * @param assetPath Path pointing to a file inside the app's assets.
+     * @param listener Optional listener notified while the asset is copied into the store.
+     * @return Lease holding the shared file. Must be closed once the file is no longer used.
+     */
+    @WorkerThread
+    @NonNull
+    public Lease acquire(@NonNull final String assetPath, @Nullable final CopyProgressListener listener)
+            throws IOException {
+        while (true) {
+            final String blobName = materialize(assetPath, listener);
+            synchronized (this) {
+                // The blob could have been invalidated in between, in which case we simply copy it again.
+                final File blob = new File(storeDirectory, blobName);
+                if (blob.exists()) {
+                    references
+                            .computeIfAbsent(blobName, name -> new AtomicInteger())
+                            .incrementAndGet();
+                    return new Lease(blobName, blob);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a private, writable clone of the blob of {@code assetPath} to {@code target}. The clone
+     * is copied from the already decompressed blob inside the kernel, which is considerably cheaper
+     * than extracting the asset from the APK again.
+     *
+     * @param assetPath Path pointing to a file inside the app's assets.
+     * @param target File the clone is written to. An existing file is replaced.
+     * @return The written {@code target} file.
+     */
+    @WorkerThread
+    @NonNull
+    public File cloneTo(@NonNull final String assetPath, @NonNull final File target) throws IOException {
+        return cloneTo(assetPath, target, null);
+    }
+
+    /**
+     * Writes a private, writable clone of the blob of {@code assetPath} to {@code target}.
+     *
+     * @param assetPath Path pointing to a file inside the app's assets.
+     * @param target File the clone is written to. An existing file is replaced.
+     * @param listener Optional listener notified while the asset is copied into the store and cloned.
+     *     If the asset isn't stored yet, both steps are reported as one copy of twice the asset size.
+     * @return The written {@code target} file.
+     */
+    @WorkerThread
+    @NonNull
+    public File cloneTo(
+            @NonNull final String assetPath, @NonNull final File target, @Nullable final CopyProgressListener listener)
+            throws IOException {
+        // Only reported if the asset wasn't stored yet, in which case the clone is the second half of the work.
+        final boolean[] copiedIntoStore = {false};
+        final CopyProgressListener storeListener = listener == null
+                ? null
+                : (bytesCopied, totalBytes) -> {
+                    copiedIntoStore[0] = true;
+                    listener.onProgress(bytesCopied, 2 * totalBytes);
+                };
+        try (Lease lease = acquire(assetPath, storeListener)) {
+            final File parent = target.getParentFile();
+            if (parent != null) parent.mkdirs();
+
+            final File temp = new File(target.getPath() + TEMP_FILE_SUFFIX);
+            try (FileChannel source = new FileInputStream(lease.getFile()).getChannel();
+                    FileChannel destination = new FileOutputStream(temp).getChannel()) {
+                final CopyProgressListener cloneListener = listener == null
+                        ? null
+                        : (bytesCopied, totalBytes) -> {
+                            if (copiedIntoStore[0]) {
+                                listener.onProgress(totalBytes + bytesCopied, 2 * totalBytes);
+                            } else {
+                                listener.onProgress(bytesCopied, totalBytes);
+                            }
+                        };
+                AssetCopy.transfer(source, 0, source.size(), destination, cloneListener);
+            }
+            if (!temp.renameTo(target)) {
+                temp.delete();
+                throw new IOException("Could not move clone of " + assetPath + " to " + target);
+            }
+            return target;
+        }
+    }
+
+    /**
+     * Deletes every blob whose contents are no longer part of the {@link AssetManifest}, unless it is
+     * still leased. Blobs of unchanged assets are kept, so they don't need to be extracted again.
+     */
+    @WorkerThread
+    public synchronized void prune() {
+        final AssetManifest manifest = AssetManifest.get(context);
+        // Without a manifest we can't tell which blobs are stale, so we keep all of them.
+        if (manifest.isEmpty()) return;
+
+        final Set<String> liveHashes = new HashSet<>(manifest.getHashes());
+        final SharedPreferences.Editor editor = index.edit();
+        for (Map.Entry<String, ?> entry : index.getAll().entrySet()) {
+            if (!liveHashes.contains(hashOf(String.valueOf(entry.getValue())))) {
+                editor.remove(entry.getKey());
+            }
+        }
+        editor.apply();
+
+        final File[] files = storeDirectory.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            final AtomicInteger count = references.get(file.getName());
+            final boolean leased = count != null && count.get() > 0;
+            if (!leased && !liveHashes.contains(hashOf(file.getName()))) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the uncompressed size of {@code assetPath} in bytes.
+     *
+     * @param assetPath Path pointing to a file inside the app's assets.
+     */
+    @WorkerThread
+    public long sizeOf(@NonNull final String assetPath) throws IOException {
+        try (AssetFileDescriptor descriptor = context.getAssets().openFd(assetPath)) {
+            return descriptor.getLength();
+        } catch (FileNotFoundException e) {
+            // Compressed assets can't be opened as file descriptor, but their streams know their length.
+            try (InputStream input = context.getAssets().open(assetPath)) {
+                return input.available();
+            }
+        }
+    }
+
+    /** Returns the name of the blob holding {@code assetPath}, copying the asset into the store if needed. */
+    @NonNull
+    private String materialize(@NonNull final String assetPath, @Nullable final CopyProgressListener listener)
+            throws IOException {
+        synchronized (assetLocks.computeIfAbsent(assetPath, path -> new Object())) {
+            // The build-time manifest already knows the content hash, so we can look up the blob
+            // without reading the asset. Assets missing from the manifest fall back to the index.
+            final String expectedHash = AssetManifest.get(context).getHash(assetPath);
+            final String blobName =
+                    expectedHash != null ? expectedHash + extensionOf(assetPath) : index.getString(assetPath, null);
+            if (blobName != null && new File(storeDirectory, blobName).exists()) {
+                return blobName;
+            }
+            return copyIntoStore(assetPath, expectedHash, listener);
+        }
+    }
+
+    @NonNull
+    private String copyIntoStore(
+            @NonNull final String assetPath,
+            @Nullable final String expectedHash,
+            @Nullable final CopyProgressListener listener)
+            throws IOException {
+        storeDirectory.mkdirs();
+        final File temp = File.createTempFile("asset", TEMP_FILE_SUFFIX, storeDirectory);
+        final String hash;
+        try {
+            if (expectedHash != null && copyUncompressed(assetPath, temp, listener)) {
+                // The bytes never pass through the Java heap, so we rely on the build-time hash.
+                hash = expectedHash;
+            } else {
+                hash = copyAndHash(assetPath, temp, listener);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+
+        final String blobName = hash + extensionOf(assetPath);
+        final File blob = new File(storeDirectory, blobName);
+        synchronized (this) {
+            if (blob.exists()) {
+                // Another asset with identical contents is already stored.
+                temp.delete();
+            } else if (temp.renameTo(blob)) {
+                // Shared blobs must never be modified, since every reader sees the same file.
+                blob.setReadOnly();
+            } else {
+                temp.delete();
+                throw new IOException("Could not move " + assetPath + " into the asset store.");
+            }
+        }
+        index.edit().putString(assetPath, blobName).apply();
+        return blobName;
+    }
+
+    /**
+     * Copies an asset that is stored uncompressed inside the APK (see {@code noCompress} in the app's
+     * build file) by letting the kernel transfer its region of the APK directly into {@code target}.
+     *
+     * @return {@code false} if the asset is compressed and has to be copied through a stream instead.
+     */
+    private boolean copyUncompressed(
+            @NonNull final String assetPath, @NonNull final File target, @Nullable final CopyProgressListener listener)
+            throws IOException {
+        final AssetFileDescriptor descriptor;
+        try {
+            descriptor = context.getAssets().openFd(assetPath);
+        } catch (FileNotFoundException e) {
+            // Compressed assets can't be opened as file descriptor.
+            return false;
+        }
+        try (descriptor;
+                FileInputStream input = descriptor.createInputStream();
+                FileChannel source = input.getChannel();
+                FileChannel destination = new FileOutputStream(target).getChannel()) {
+            // The channel spans the whole APK, so the asset is addressed by its absolute offset.
+            AssetCopy.transfer(source, descriptor.getStartOffset(), descriptor.getLength(), destination, listener);
+        }
+        return true;
+    }
+
+    /**
+     * Copies an asset through a stream, computing its SHA-1 along the way.
+     *
+     * @return The hex encoded SHA-1 of the asset.
+     */
+    @NonNull
+    private String copyAndHash(
+            @NonNull final String assetPath, @NonNull final File target, @Nullable final CopyProgressListener listener)
+            throws IOException {
+        final long size = listener != null ? sizeOf(assetPath) : -1;
+        final MessageDigest digest = newSha1Digest();
+        try (InputStream input = new DigestInputStream(context.getAssets().open(assetPath), digest);
+                OutputStream output = new FileOutputStream(target)) {
+            AssetCopy.copy(input, output, size, listener);
+        }
+        return StringUtils.byteToHex(digest.digest());
+    }
+
+    private void release(@NonNull final String blobName) {
+        final AtomicInteger count = references.get(blobName);
+        if (count != null) count.decrementAndGet();
+    }
+
+    /** Returns the content hash part of a blob name, i.e. the name without its extension. */
+    @NonNull
+    private static String hashOf(@NonNull final String blobName) {
+        final int dot = blobName.indexOf('.');
+        return dot >= 0 ? blobName.substring(0, dot) : blobName;
+    }
+
+    /** Returns the extension of {@code assetPath} including the dot, so blobs keep their file type. */
+    @NonNull
+    private static String extensionOf(@NonNull final String assetPath) {
+        final int slash = assetPath.lastIndexOf('/');
+        final int dot = assetPath.lastIndexOf('.');
+        return dot > slash ? assetPath.substring(dot) : "";
+    }
+
+    @NonNull
+    private static MessageDigest newSha1Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Device is missing SHA-1!");
+        }
+    }
+
+    /** Listener notified about the progress of copying an asset. Called on the copying thread. */
+    public interface CopyProgressListener {
+        /**
+         * Called whenever another chunk of the asset was copied.
+         *
+         * @param bytesCopied Number of bytes copied so far.
+         * @param totalBytes Size of the asset in bytes.
+         */
+        void onProgress(long bytesCopied, long totalBytes);
+    }
+
+    /** Read-only access to a shared blob. The blob is kept on disk until the lease is closed. */
+    public final class Lease implements Closeable {
+        @NonNull
+        private final String blobName;
+
+        @NonNull
+        private final File file;
+
+        @NonNull
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private Lease(@NonNull final String blobName, @NonNull final File file) {
+            this.blobName = blobName;
+            this.file = file;
+        }
+
+        /** Returns the shared file. It must not be modified. */
+        @NonNull
+        public File getFile() {
+            return file;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release(blobName);
+            }
+        }
+    }
+}
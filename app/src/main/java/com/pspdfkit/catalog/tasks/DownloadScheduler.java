@@ -0,0 +1,376 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks;
+
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.pspdfkit.catalog.utils.ProgressCoalescer;
+import com.pspdfkit.document.download.DownloadJob;
+import com.pspdfkit.document.download.DownloadRequest;
+import com.pspdfkit.document.download.Progress;
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Starts {@link DownloadJob}s in order of their {@link Priority}, instead of all at once. Each
+ * priority class runs a limited number of downloads concurrently. A class only starts downloads
+ * while every higher class has an empty queue and a free slot, so prefetches never compete with
+ * downloads the user waits for. A queued download the user starts waiting for can be {@link
+ * Ticket#promote(Priority) promoted}, moving it ahead of the prefetches.
+ *
+ * <p>While the device is on a metered network, prefetch and background downloads stay queued.
+ * Downloads the user waits for still start. Per class, the time spent in the queue and the
+ * throughput of completed downloads are recorded, see {@link #getMetrics(Priority)}.
+ *
+ * <p>The scheduler must be used from the main thread, where the download jobs report to it.
+ */
+public final class DownloadScheduler {
+    /** Priority classes, from highest to lowest. */
+    public enum Priority {
+        /** Downloads the user is waiting for. */
+        INTERACTIVE(3),
+        /** Downloads of documents the user will probably open soon. */
+        PREFETCH(2),
+        /** Everything else, like refreshing documents that are already available. */
+        BACKGROUND(1);
+
+        /** Number of downloads of this class that run at the same time. */
+        final int maxRunning;
+
+        Priority(final int maxRunning) {
+            this.maxRunning = maxRunning;
+        }
+    }
+
+    /** Called once a queued download was started. */
+    public interface StartListener {
+        void onStarted(@NonNull DownloadJob job);
+    }
+
+    @Nullable
+    private static DownloadScheduler instance;
+
+    @NonNull
+    private final Map<Priority, ArrayDeque<Ticket>> queues = new EnumMap<>(Priority.class);
+
+    @NonNull
+    private final Map<Priority, Integer> running = new EnumMap<>(Priority.class);
+
+    @NonNull
+    private final Map<Priority, ClassMetrics> metrics = new EnumMap<>(Priority.class);
+
+    /** Whether the default network is metered. Prefetch and background downloads wait while it is. */
+    private boolean metered;
+
+    private DownloadScheduler(@NonNull final Context context) {
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            running.put(priority, 0);
+            metrics.put(priority, new ClassMetrics());
+        }
+
+        final ConnectivityManager connectivityManager = context.getSystemService(ConnectivityManager.class);
+        metered = connectivityManager.isActiveNetworkMetered();
+        connectivityManager.registerDefaultNetworkCallback(
+                new ConnectivityManager.NetworkCallback() {
+                    @Override
+                    public void onCapabilitiesChanged(
+                            @NonNull Network network, @NonNull NetworkCapabilities capabilities) {
+                        setMetered(!capabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED));
+                    }
+                },
+                new Handler(Looper.getMainLooper()));
+    }
+
+    /** Returns the scheduler shared by the whole app. */
+    @MainThread
+    @NonNull
+    public static DownloadScheduler get(@NonNull final Context context) {
+        if (instance == null) {
+            instance = new DownloadScheduler(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a download. It starts right away if its priority class has a free slot, and no higher
+     * class has downloads queued or all of its slots in use.
+     *
+     * @param request The download to run.
+     * @param priority Priority class of the download.
+     * @param listener Receives the progress and result of the download, once it started.
+     * @return Ticket for following the queued download.
+     */
+    @MainThread
+    @NonNull
+    public Ticket enqueue(
+            @NonNull final DownloadRequest request,
+            @NonNull final Priority priority,
+            @NonNull final DownloadJob.ProgressListener listener) {
+        final Ticket ticket = new Ticket(request, priority, listener);
+        queues.get(priority).add(ticket);
+        schedule();
+        return ticket;
+    }
+
+    /** Returns the queue wait and throughput of the downloads of {@code priority} so far. */
+    @MainThread
+    @NonNull
+    public ClassMetrics getMetrics(@NonNull final Priority priority) {
+        return metrics.get(priority).copy();
+    }
+
+    private void setMetered(final boolean metered) {
+        if (this.metered == metered) return;
+        this.metered = metered;
+        Log.i(TAG, metered ? "Pausing prefetch downloads on a metered network." : "Resuming prefetch downloads.");
+        schedule();
+    }
+
+    private void schedule() {
+        for (Priority priority : Priority.values()) {
+            if (metered && priority != Priority.INTERACTIVE) break;
+            final ArrayDeque<Ticket> queue = queues.get(priority);
+            while (!queue.isEmpty() && running.get(priority) < priority.maxRunning) {
+                queue.poll().start();
+            }
+            // Lower classes wait while this class still has downloads queued or uses all of its slots.
+            if (!queue.isEmpty() || running.get(priority) >= priority.maxRunning) break;
+        }
+    }
+
+    /** A download queued with {@link #enqueue(DownloadRequest, Priority, DownloadJob.ProgressListener)}. */
+    public final class Ticket {
+        @NonNull
+        private final DownloadRequest request;
+
+        @NonNull
+        private final DownloadJob.ProgressListener listener;
+
+        @NonNull
+        private Priority priority;
+
+        private final long enqueuedAt = SystemClock.elapsedRealtime();
+        private long startedAt;
+
+        @Nullable
+        private DownloadJob job;
+
+        @Nullable
+        private StartListener startListener;
+
+        private boolean finished;
+
+        private Ticket(
+                @NonNull final DownloadRequest request,
+                @NonNull final Priority priority,
+                @NonNull final DownloadJob.ProgressListener listener) {
+            this.request = request;
+            this.priority = priority;
+            this.listener = listener;
+        }
+
+        /** Returns the current priority class of the download. */
+        @NonNull
+        public Priority getPriority() {
+            return priority;
+        }
+
+        /** Returns the download's job, or {@code null} while it is queued. */
+        @Nullable
+        public DownloadJob getJob() {
+            return job;
+        }
+
+        /** Calls {@code startListener} once the download started, right away if it already did. */
+        @MainThread
+        public void whenStarted(@NonNull final StartListener startListener) {
+            if (job != null) {
+                startListener.onStarted(job);
+            } else {
+                this.startListener = startListener;
+            }
+        }
+
+        /**
+         * Moves the download into the higher class {@code priority}. A queued download goes to the
+         * end of that class's queue, and starts right away if the class has a free slot. A running
+         * download frees the slot of its previous class for the next queued download.
+         */
+        @MainThread
+        public void promote(@NonNull final Priority priority) {
+            if (finished || priority.compareTo(this.priority) >= 0) return;
+            if (job == null) {
+                queues.get(this.priority).remove(this);
+                queues.get(priority).add(this);
+            } else {
+                running.put(this.priority, running.get(this.priority) - 1);
+                running.put(priority, running.get(priority) + 1);
+            }
+            this.priority = priority;
+            schedule();
+        }
+
+        /** Removes the download from its queue, or cancels it if it is running. */
+        @MainThread
+        public void cancel() {
+            if (finished) return;
+            if (job == null) {
+                finished = true;
+                queues.get(priority).remove(this);
+            } else {
+                job.cancel();
+                finish(false, 0);
+            }
+        }
+
+        private void start() {
+            startedAt = SystemClock.elapsedRealtime();
+            metrics.get(priority).recordQueueWait(startedAt - enqueuedAt);
+            running.put(priority, running.get(priority) + 1);
+            job = DownloadJob.startDownload(request);
+            // Jobs report progress for every buffer they receive. The listener gets it at most once per frame.
+            final ProgressCoalescer<Progress> coalescedProgress = new ProgressCoalescer<>(progress -> {
+                if (!finished) listener.onProgress(progress);
+            });
+            job.setProgressListener(new DownloadJob.ProgressListener() {
+                @Override
+                public void onProgress(@NonNull Progress progress) {
+                    coalescedProgress.publish(progress);
+                }
+
+                @Override
+                public void onComplete(@NonNull File output) {
+                    if (finished) return;
+                    coalescedProgress.flush();
+                    finish(true, output.length());
+                    listener.onComplete(output);
+                }
+
+                @Override
+                public void onError(@NonNull Throwable exception) {
+                    if (finished) return;
+                    finish(false, 0);
+                    listener.onError(exception);
+                }
+            });
+            if (startListener != null) {
+                startListener.onStarted(job);
+                startListener = null;
+            }
+        }
+
+        private void finish(final boolean successful, final long bytes) {
+            finished = true;
+            running.put(priority, running.get(priority) - 1);
+            final ClassMetrics classMetrics = metrics.get(priority);
+            classMetrics.recordDownload(successful, bytes, SystemClock.elapsedRealtime() - startedAt);
+            Log.d(TAG, "Download of " + job.getOutputFile().getName() + " finished. " + priority + " downloads: "
+                    + classMetrics);
+            schedule();
+        }
+    }
+
+    /** Queue wait and throughput of the downloads of a priority class. */
+    public static final class ClassMetrics {
+        private int started;
+        private long totalQueueWaitMs;
+        private long maxQueueWaitMs;
+        private int completed;
+        private int failed;
+        private long completedBytes;
+        private long completedDownloadMs;
+
+        private void recordQueueWait(final long waitMs) {
+            started++;
+            totalQueueWaitMs += waitMs;
+            maxQueueWaitMs = Math.max(maxQueueWaitMs, waitMs);
+        }
+
+        private void recordDownload(final boolean successful, final long bytes, final long durationMs) {
+            if (successful) {
+                completed++;
+                completedBytes += bytes;
+                completedDownloadMs += durationMs;
+            } else {
+                failed++;
+            }
+        }
+
+        @NonNull
+        private ClassMetrics copy() {
+            final ClassMetrics copy = new ClassMetrics();
+            copy.started = started;
+            copy.totalQueueWaitMs = totalQueueWaitMs;
+            copy.maxQueueWaitMs = maxQueueWaitMs;
+            copy.completed = completed;
+            copy.failed = failed;
+            copy.completedBytes = completedBytes;
+            copy.completedDownloadMs = completedDownloadMs;
+            return copy;
+        }
+
+        /** Returns the number of downloads that left the queue. */
+        public int getStartedCount() {
+            return started;
+        }
+
+        /** Returns the number of downloads that completed successfully. */
+        public int getCompletedCount() {
+            return completed;
+        }
+
+        /** Returns the number of downloads that failed or were cancelled while running. */
+        public int getFailedCount() {
+            return failed;
+        }
+
+        /** Returns the average time downloads spent in the queue, in milliseconds. */
+        public long getAverageQueueWaitMs() {
+            return started == 0 ? 0 : totalQueueWaitMs / started;
+        }
+
+        /** Returns the longest time a download spent in the queue, in milliseconds. */
+        public long getMaxQueueWaitMs() {
+            return maxQueueWaitMs;
+        }
+
+        /** Returns the average throughput of completed downloads, in bytes per second. */
+        public long getThroughputBytesPerSecond() {
+            return completedDownloadMs == 0 ? 0 : completedBytes * 1000 / completedDownloadMs;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(
+                    Locale.US,
+                    "%d started, %d completed, %d failed, queue wait %d ms average, %d ms max, %d KB/s",
+                    started,
+                    completed,
+                    failed,
+                    getAverageQueueWaitMs(),
+                    maxQueueWaitMs,
+                    getThroughputBytesPerSecond() / 1024);
+        }
+    }
+}
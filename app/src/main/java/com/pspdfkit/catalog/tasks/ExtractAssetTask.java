@@ -13,14 +13,16 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.pspdfkit.catalog.BuildConfig;
 import com.pspdfkit.catalog.utils.StringUtils;
-import com.pspdfkit.document.download.DownloadJob;
-import com.pspdfkit.document.download.DownloadRequest;
-import com.pspdfkit.document.download.source.AssetDownloadSource;
 import io.reactivex.rxjava3.android.schedulers.AndroidSchedulers;
+import io.reactivex.rxjava3.core.Observable;
+import io.reactivex.rxjava3.core.Scheduler;
 import io.reactivex.rxjava3.core.Single;
 import io.reactivex.rxjava3.schedulers.Schedulers;
 import java.io.File;
-import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Helper class for asynchronously pulling a PDF document from the app's assets into the internal
@@ -30,16 +32,21 @@ import java.io.FilenameFilter;
 public class ExtractAssetTask {
     private static final String PREFS_NAME = "PSPDFCatalog.ExtractAssetTask";
 
+    /** Default number of assets {@link #extractAll} extracts at the same time. */
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+
     /**
-     * The catalog app keeps track of the last used version code. Whenever this version code
-     * changes, it will automatically clean up all extracted assets, to make sure the newest version
-     * of assets is correctly copied to the device.
+     * Prefix of the preference keys recording the asset content hash each extracted copy was created
+     * from. Copies are only extracted again once the hash in the {@link AssetManifest} changes. Assets
+     * missing from the manifest record the app version instead, and are extracted again after updates.
      */
-    private static final String PREF_LAST_USED_VERSION = "PSPDFCatalog.LAST_USED_VERSION";
+    private static final String PREF_EXTRACTED_HASH_PREFIX = "PSPDFCatalog.EXTRACTED_HASH.";
+
+    /** Extractions currently in flight, keyed by the absolute path of their output file. */
+    private static final SingleFlight<String, File> EXTRACTIONS = new SingleFlight<>();
 
-    /** Filter for listing files that have the ".pdf" file extension. */
-    private static final FilenameFilter PDF_FILTER =
-            (dir, filename) -> filename.length() > 4 && ".pdf".equals(filename.substring(filename.length() - 4));
+    /** Whether the extracted assets were already checked against the asset manifest in this process. */
+    private static boolean assetsVerified = false;
 
     /**
      * Extracts the file at {@code assetPath} from the app's assets into the private app directory.
@@ -128,60 +135,313 @@ public class ExtractAssetTask {
             @NonNull final Context context,
             final boolean overwriteExisting,
             @Nullable final String fileExtension) {
-        return Single.<File>create((emitter) -> {
-                    cleanUpOldAssets(context);
-                    final File outputFile;
-                    if (fileExtension != null) {
-                        outputFile = new File(
-                                context.getFilesDir(),
-                                assetPath + "_" + StringUtils.sha1(exampleTitle) + "." + fileExtension);
-                    } else {
-                        outputFile = new File(context.getFilesDir(), assetPath + "_" + StringUtils.sha1(exampleTitle));
+        final AssetRequest request = new AssetRequest(assetPath, exampleTitle, overwriteExisting, fileExtension);
+        AssetPrewarmer.recordExtraction(context, request);
+        return extractCoalesced(context, request, null, Schedulers.io()).subscribeOn(Schedulers.io());
+    }
+
+    /**
+     * Extracts several assets in parallel into the private app directory. At most {@code
+     * maxConcurrency} assets are extracted at the same time, so opening multiple documents takes
+     * roughly as long as extracting the largest one.
+     *
+     * @param requests Assets to extract.
+     * @param context Context used to retrieve the referenced files from the app's assets.
+     * @param maxConcurrency Maximum number of assets extracted at the same time.
+     * @param listener Optional listener notified about the progress of every file and of all files
+     *     together. It is called on background threads.
+     * @return Single emitting all extracted files, in the order of {@code requests}.
+     */
+    @NonNull
+    public static Single<List<File>> extractAll(
+            @NonNull final List<AssetRequest> requests,
+            @NonNull final Context context,
+            final int maxConcurrency,
+            @Nullable final OnExtractionProgressListener listener) {
+        for (AssetRequest request : requests) {
+            AssetPrewarmer.recordExtraction(context, request);
+        }
+        return Single.defer(() -> {
+                    verifyExtractedAssets(context);
+                    final AssetStore store = AssetStore.get(context);
+                    final long[] totalBytes = new long[requests.size()];
+                    long aggregateTotalBytes = 0;
+                    for (int i = 0; i < requests.size(); i++) {
+                        totalBytes[i] = store.sizeOf(requests.get(i).assetPath);
+                        aggregateTotalBytes += totalBytes[i];
                     }
-                    final DownloadRequest request = new DownloadRequest.Builder(context)
-                            .source(new AssetDownloadSource(context, assetPath))
-                            .outputFile(outputFile)
-                            .overwriteExisting(overwriteExisting)
-                            .build();
-                    final DownloadJob job = DownloadJob.startDownload(request);
-                    job.setProgressListener(new DownloadJob.ProgressListenerAdapter() {
-                        @Override
-                        public void onComplete(@NonNull File output) {
-                            emitter.onSuccess(output);
-                        }
+                    final BulkProgress progress = new BulkProgress(totalBytes, aggregateTotalBytes, listener);
+                    return Observable.range(0, requests.size())
+                            .concatMapEager(
+                                    index -> extractCoalesced(
+                                                    context,
+                                                    requests.get(index),
+                                                    (copied, total) -> progress.onProgress(
+                                                            index, requests.get(index), copied, total),
+                                                    Schedulers.io())
+                                            .doOnSuccess(file -> progress.onProgress(
+                                                    index, requests.get(index), totalBytes[index]))
+                                            .toObservable(),
+                                    maxConcurrency,
+                                    1)
+                            .toList();
+                })
+                .subscribeOn(Schedulers.io());
+    }
 
-                        @Override
-                        public void onError(@NonNull Throwable exception) {
-                            super.onError(exception);
-                            emitter.tryOnError(exception);
-                        }
-                    });
-                    emitter.setCancellable(job::cancel);
+    /**
+     * Extracts several assets in parallel into the private app directory, using {@link
+     * #DEFAULT_MAX_CONCURRENCY} workers.
+     *
+     * @see #extractAll(List, Context, int, OnExtractionProgressListener)
+     */
+    @NonNull
+    public static Single<List<File>> extractAll(
+            @NonNull final List<AssetRequest> requests,
+            @NonNull final Context context,
+            @Nullable final OnExtractionProgressListener listener) {
+        return extractAll(requests, context, DEFAULT_MAX_CONCURRENCY, listener);
+    }
+
+    /**
+     * Provides shared, read-only access to the file at {@code assetPath}. All callers share a single
+     * copy of the asset, so this should be preferred by examples that never modify their document
+     * (e.g. examples with disabled autosave).
+     *
+     * @param assetPath Path pointing to a file inside the app's assets.
+     * @param context Context used to retrieve the referenced file from the app's assets.
+     * @return Single emitting a lease on the shared file. The lease has to be closed once the file is
+     *     no longer in use.
+     */
+    @NonNull
+    public static Single<AssetStore.Lease> extractSharedAsync(
+            @NonNull final String assetPath, @NonNull final Context context) {
+        return Single.fromCallable(() -> {
+                    verifyExtractedAssets(context);
+                    return AssetStore.get(context).acquire(assetPath);
                 })
                 .subscribeOn(Schedulers.io());
     }
 
-    /** Checks if all extracted assets are still up-to-date, and if not, cleans up those assets. */
-    private static void cleanUpOldAssets(@NonNull final Context context) {
+    /**
+     * Prepares {@code request} ahead of time without recording it as used, so a later {@link
+     * #extractAsync} call for the same request finds its file ready. Requests that overwrite their
+     * file on every launch only get the deduplicated copy inside the asset store prepared.
+     *
+     * @param scheduler Scheduler the extraction runs on.
+     * @return Single emitting the prepared file.
+     */
+    @NonNull
+    static Single<File> prewarm(
+            @NonNull final Context context, @NonNull final AssetRequest request, @NonNull final Scheduler scheduler) {
+        if (request.overwriteExisting) {
+            return Single.fromCallable(() -> {
+                        verifyExtractedAssets(context);
+                        try (AssetStore.Lease lease = AssetStore.get(context).acquire(request.assetPath)) {
+                            return lease.getFile();
+                        }
+                    })
+                    .subscribeOn(scheduler);
+        }
+        return extractCoalesced(context, request, null, scheduler);
+    }
+
+    /**
+     * Extracts a single asset on {@code scheduler}. Concurrent extractions to the same output file are
+     * coalesced, so the file is only written once, and only cancelled once all callers disposed.
+     *
+     * @param listener Optional progress listener. Only notified if this call started the extraction.
+     * @param scheduler Scheduler the extraction runs on, if this call starts it.
+     */
+    @NonNull
+    private static Single<File> extractCoalesced(
+            @NonNull final Context context,
+            @NonNull final AssetRequest request,
+            @Nullable final AssetStore.CopyProgressListener listener,
+            @NonNull final Scheduler scheduler) {
+        return Single.defer(() -> EXTRACTIONS.execute(
+                request.getOutputFile(context).getAbsolutePath(),
+                () -> Single.fromCallable(() -> {
+                            verifyExtractedAssets(context);
+                            return extractBlocking(context, request, listener);
+                        })
+                        .subscribeOn(scheduler)));
+    }
+
+    /**
+     * Extracts a single asset on the calling thread, unless an up-to-date copy already exists.
+     *
+     * @return The extracted file.
+     */
+    @NonNull
+    private static File extractBlocking(
+            @NonNull final Context context,
+            @NonNull final AssetRequest request,
+            @Nullable final AssetStore.CopyProgressListener listener)
+            throws IOException {
+        final File outputFile = request.getOutputFile(context);
         final SharedPreferences preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        final int lastUsedVersionCode = preferences.getInt(PREF_LAST_USED_VERSION, -1);
-
-        // If the last catalog version that was used while extracting is older than the current
-        // version
-        // we clean up all extracted assets.
-        if (lastUsedVersionCode < BuildConfig.VERSION_CODE) {
-            final File outputDir = context.getFilesDir();
-            if (outputDir.exists()) {
-                for (File document : outputDir.listFiles(PDF_FILTER)) {
-                    document.delete();
-                }
+        final String hashKey = PREF_EXTRACTED_HASH_PREFIX + outputFile.getAbsolutePath();
+        final String assetHash = AssetManifest.get(context).getHash(request.assetPath);
+        final String extractedFrom = assetHash != null ? assetHash : "version:" + BuildConfig.VERSION_CODE;
+        final boolean upToDate = extractedFrom.equals(preferences.getString(hashKey, null));
+        if (outputFile.exists() && !request.overwriteExisting && upToDate) {
+            return outputFile;
+        }
+        // Every example gets its own writable copy, cloned from the single deduplicated copy of the
+        // asset inside the asset store.
+        AssetStore.get(context).cloneTo(request.assetPath, outputFile, listener);
+        preferences.edit().putString(hashKey, extractedFrom).apply();
+        return outputFile;
+    }
+
+    /**
+     * Drops all stored assets whose contents changed since they were extracted. This only happens
+     * once per process, and unchanged assets are kept even across app updates.
+     */
+    private static synchronized void verifyExtractedAssets(@NonNull final Context context) {
+        if (assetsVerified) return;
+        AssetStore.get(context).prune();
+        assetsVerified = true;
+    }
+
+    /** Describes a single asset extracted by {@link #extractAll}. */
+    public static final class AssetRequest {
+        @NonNull
+        final String assetPath;
+
+        @Nullable
+        final String exampleTitle;
+
+        @Nullable
+        final String fileExtension;
+
+        @Nullable
+        private final File outputFile;
+
+        final boolean overwriteExisting;
+
+        /**
+         * Creates a request for the private copy of {@code assetPath} of the given example, the same
+         * file returned by {@link #extractAsync}.
+         *
+         * @param assetPath Path pointing to a file inside the app's assets.
+         * @param exampleTitle Title of the example, used to keep separate copies of assets for every
+         *     example.
+         * @param overwriteExisting Whether an existing file should be overwritten.
+         * @param fileExtension An optional file extension that should be used for the extracted file.
+         */
+        public AssetRequest(
+                @NonNull final String assetPath,
+                @NonNull final String exampleTitle,
+                final boolean overwriteExisting,
+                @Nullable final String fileExtension) {
+            this.assetPath = assetPath;
+            this.exampleTitle = exampleTitle;
+            this.fileExtension = fileExtension;
+            this.outputFile = null;
+            this.overwriteExisting = overwriteExisting;
+        }
+
+        /**
+         * Creates a request extracting {@code assetPath} to an explicit location.
+         *
+         * @param assetPath Path pointing to a file inside the app's assets.
+         * @param outputFile File the asset is extracted to.
+         */
+        public AssetRequest(@NonNull final String assetPath, @NonNull final File outputFile) {
+            this.assetPath = assetPath;
+            this.exampleTitle = null;
+            this.fileExtension = null;
+            this.outputFile = outputFile;
+            this.overwriteExisting = false;
+        }
+
+        /** Returns the path of the requested file inside the app's assets. */
+        @NonNull
+        public String getAssetPath() {
+            return assetPath;
+        }
+
+        @NonNull
+        File getOutputFile(@NonNull final Context context) {
+            if (outputFile != null) return outputFile;
+            final String fileName = assetPath + "_" + StringUtils.sha1(exampleTitle);
+            return new File(context.getFilesDir(), fileExtension != null ? fileName + "." + fileExtension : fileName);
+        }
+    }
+
+    /** Tracks the per-file and aggregate progress of {@link #extractAll}. */
+    static final class BulkProgress {
+        @NonNull
+        private final long[] totalBytes;
+
+        /** Highest reported progress per file, so that progress never moves backwards. */
+        @NonNull
+        private final AtomicLongArray copiedBytes;
+
+        private final long aggregateTotalBytes;
+
+        @NonNull
+        private final AtomicLong aggregateCopiedBytes = new AtomicLong();
+
+        @Nullable
+        private final OnExtractionProgressListener listener;
+
+        BulkProgress(
+                @NonNull final long[] totalBytes,
+                final long aggregateTotalBytes,
+                @Nullable final OnExtractionProgressListener listener) {
+            this.totalBytes = totalBytes;
+            this.copiedBytes = new AtomicLongArray(totalBytes.length);
+            this.aggregateTotalBytes = aggregateTotalBytes;
+            this.listener = listener;
+        }
+
+        /**
+         * Reports progress of the file at {@code index} that the asset store measured against {@code
+         * total}. The store counts copying a new asset into the store and cloning it separately, so
+         * {@code total} can be a multiple of the file size.
+         */
+        void onProgress(
+                final int index, @NonNull final AssetRequest request, final long copied, final long total) {
+            final long fileSize = totalBytes[index];
+            onProgress(index, request, total > 0 && total != fileSize ? copied * fileSize / total : copied);
+        }
+
+        void onProgress(final int index, @NonNull final AssetRequest request, final long copied) {
+            long previous;
+            do {
+                previous = copiedBytes.get(index);
+                if (copied <= previous) return;
+            } while (!copiedBytes.compareAndSet(index, previous, copied));
+
+            final long aggregate = aggregateCopiedBytes.addAndGet(copied - previous);
+            if (listener != null) {
+                listener.onFileProgress(request, copied, totalBytes[index]);
+                listener.onProgress(aggregate, aggregateTotalBytes);
             }
         }
+    }
 
-        preferences
-                .edit()
-                .putInt(PREF_LAST_USED_VERSION, BuildConfig.VERSION_CODE)
-                .apply();
+    /** Listens for the progress of {@link #extractAll}. */
+    public interface OnExtractionProgressListener {
+        /**
+         * Called when another chunk of a single file was extracted.
+         *
+         * @param request The request of the file.
+         * @param bytesExtracted Number of bytes of this file extracted so far.
+         * @param totalBytes Size of this file in bytes.
+         */
+        void onFileProgress(@NonNull AssetRequest request, long bytesExtracted, long totalBytes);
+
+        /**
+         * Called when another chunk of any file was extracted.
+         *
+         * @param bytesExtracted Number of bytes extracted so far, over all files.
+         * @param totalBytes Size of all files in bytes.
+         */
+        void onProgress(long bytesExtracted, long totalBytes);
     }
 
     /** Listens for document extraction events. */
@@ -0,0 +1,440 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks;
+
+import static com.pspdfkit.catalog.SdkExample.TAG;
+
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.pspdfkit.document.download.source.DownloadSource;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link DownloadSource} that downloads a document over several connections at once. A single
+ * connection can't fill a fast link with a high round-trip time, since it has to wait for
+ * acknowledgements, so the document is split into segments fetched with HTTP {@code Range} requests.
+ * Segments are written into a preallocated file at their offsets.
+ *
+ * <p>Segments are handed out in file order, and {@link #open()} returns a stream over the finished
+ * part at the start of the file, so {@link com.pspdfkit.document.download.DownloadJob} reports
+ * progress as usual. The download starts with two connections and opens another one as long as the
+ * previous one raised the throughput noticeably. Servers that don't support range requests are
+ * downloaded over a single connection.
+ */
+public class SegmentedDownloadSource implements DownloadSource {
+    public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+    public static final int DEFAULT_MAX_CONNECTIONS = 8;
+
+    private static final int INITIAL_CONNECTIONS = 2;
+
+    /** An additional connection is only kept if it raised the throughput by at least this factor. */
+    private static final double MIN_SPEEDUP = 1.15;
+
+    /** Number of attempts per segment, so a flaky connection only costs the segment it was fetching. */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final int CONNECT_TIMEOUT_MS = 15_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @NonNull
+    private final URL url;
+
+    @NonNull
+    private final File downloadFile;
+
+    private final int segmentSize;
+    private final int maxConnections;
+
+    private volatile long length = UNKNOWN_DOWNLOAD_SIZE;
+
+    /**
+     * @param url URL of the document.
+     * @param downloadFile File the segments are written to while downloading. It is deleted once the
+     *     stream returned by {@link #open()} is closed.
+     */
+    public SegmentedDownloadSource(@NonNull final URL url, @NonNull final File downloadFile) {
+        this(url, downloadFile, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_CONNECTIONS);
+    }
+
+    /**
+     * @param url URL of the document.
+     * @param downloadFile File the segments are written to while downloading. It is deleted once the
+     *     stream returned by {@link #open()} is closed.
+     * @param segmentSize Number of bytes fetched per range request.
+     * @param maxConnections Maximum number of connections used at once.
+     */
+    public SegmentedDownloadSource(
+            @NonNull final URL url, @NonNull final File downloadFile, final int segmentSize, final int maxConnections) {
+        this.url = url;
+        this.downloadFile = downloadFile;
+        this.segmentSize = segmentSize;
+        this.maxConnections = maxConnections;
+    }
+
+    @NonNull
+    @Override
+    public InputStream open() throws IOException {
+        // The first segment doubles as probe for range support and the document size.
+        final HttpURLConnection probe = openConnection(0, segmentSize - 1L, null);
+        final int status = probe.getResponseCode();
+        if (status == HttpURLConnection.HTTP_OK) {
+            Log.i(TAG, "Server doesn't support range requests, downloading " + url + " over a single connection.");
+            length = probe.getContentLengthLong();
+            return probe.getInputStream();
+        } else if (status != HttpURLConnection.HTTP_PARTIAL) {
+            probe.disconnect();
+            throw new IOException("Download failed with HTTP status " + status);
+        }
+
+        final long totalSize = parseTotalSize(probe.getHeaderField("Content-Range"));
+        length = totalSize;
+        final String etag = probe.getHeaderField("ETag");
+        final String validator = etag != null ? etag : probe.getHeaderField("Last-Modified");
+        final Download download = new Download(totalSize, validator);
+        download.start(probe);
+        return download.new SegmentedInputStream();
+    }
+
+    @Override
+    public long getLength() {
+        if (length != UNKNOWN_DOWNLOAD_SIZE) return length;
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestMethod("HEAD");
+            connection.setRequestProperty("Accept-Encoding", "identity");
+            final long contentLength = connection.getContentLengthLong();
+            return contentLength >= 0 ? contentLength : UNKNOWN_DOWNLOAD_SIZE;
+        } catch (IOException e) {
+            Log.e(TAG, "Could not get size of " + url, e);
+            return UNKNOWN_DOWNLOAD_SIZE;
+        } finally {
+            if (connection != null) connection.disconnect();
+        }
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "SegmentedDownloadSource{url=" + url + "}";
+    }
+
+    @NonNull
+    private HttpURLConnection openConnection(final long start, final long end, @Nullable final String validator)
+            throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        // Ranges refer to the document's bytes, so the response must not be compressed.
+        connection.setRequestProperty("Accept-Encoding", "identity");
+        connection.setRequestProperty("Range", "bytes=" + start + "-" + end);
+        if (validator != null) {
+            // If the document changed, the server sends all of it, and the segment fails instead of mixing versions.
+            connection.setRequestProperty("If-Range", validator);
+        }
+        return connection;
+    }
+
+    /** Parses the document size out of a {@code Content-Range: bytes start-end/size} header. */
+    private static long parseTotalSize(@Nullable final String contentRange) throws IOException {
+        final int separator = contentRange != null ? contentRange.lastIndexOf('/') : -1;
+        if (separator < 0) throw new IOException("Missing Content-Range in partial response.");
+        try {
+            return Long.parseLong(contentRange.substring(separator + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Server didn't report the document size: " + contentRange);
+        }
+    }
+
+    /** A running download. All mutable fields are guarded by the download itself. */
+    private class Download {
+        private final long totalSize;
+        private final int segmentCount;
+
+        @Nullable
+        private final String validator;
+
+        @NonNull
+        private final RandomAccessFile file;
+
+        @NonNull
+        private final FileChannel channel;
+
+        @NonNull
+        private final BitSet completedSegments = new BitSet();
+
+        @NonNull
+        private final Set<HttpURLConnection> openConnections = new HashSet<>();
+
+        private int nextSegment;
+
+        /** Number of bytes at the start of the file that are downloaded completely. */
+        private long completedBytes;
+
+        private int activeConnections;
+        private int targetConnections = INITIAL_CONNECTIONS;
+
+        /** Whether connections are still added to find the best number of connections. */
+        private boolean growing = true;
+
+        private long sampleStartNanos;
+        private long sampleBytes;
+        private int sampleSegments;
+        private double lastThroughput;
+
+        @Nullable
+        private IOException failure;
+
+        private boolean closed;
+
+        Download(final long totalSize, @Nullable final String validator) throws IOException {
+            this.totalSize = totalSize;
+            this.segmentCount = (int) ((totalSize + segmentSize - 1) / segmentSize);
+            this.validator = validator;
+            file = new RandomAccessFile(downloadFile, "rw");
+            channel = file.getChannel();
+            file.setLength(totalSize);
+        }
+
+        synchronized void start(@NonNull final HttpURLConnection probe) {
+            sampleStartNanos = System.nanoTime();
+            // The probe already requested the first segment.
+            nextSegment = 1;
+            startConnection(probe);
+            for (int i = 1; i < Math.min(targetConnections, segmentCount); i++) {
+                startConnection(null);
+            }
+        }
+
+        private void startConnection(@Nullable final HttpURLConnection firstSegmentConnection) {
+            activeConnections++;
+            final Thread thread =
+                    new Thread(() -> fetchSegments(firstSegmentConnection), "SegmentedDownload-" + activeConnections);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /** Fetches segments until none are left, or this connection is no longer needed. */
+        private void fetchSegments(@Nullable HttpURLConnection connection) {
+            int segment = connection != null ? 0 : -1;
+            boolean active = true;
+            try {
+                while (true) {
+                    if (segment < 0) {
+                        synchronized (this) {
+                            // A surplus connection leaves in the same block that counts it out, so connections
+                            // deciding at the same time never all leave. The last one stays until all
+                            // segments are fetched.
+                            final boolean surplus = activeConnections > Math.max(1, targetConnections);
+                            if (closed || failure != null || nextSegment >= segmentCount || surplus) {
+                                active = false;
+                                activeConnections--;
+                                notifyAll();
+                                return;
+                            }
+                            segment = nextSegment++;
+                        }
+                    }
+                    fetchSegment(segment, connection);
+                    connection = null;
+                    segmentCompleted(segment);
+                    segment = -1;
+                }
+            } catch (IOException e) {
+                synchronized (this) {
+                    if (!closed && failure == null) {
+                        Log.e(TAG, "Segment " + segment + " of " + url + " failed: " + e.getMessage(), e);
+                        failure = e;
+                    }
+                }
+            } finally {
+                if (active) {
+                    synchronized (this) {
+                        activeConnections--;
+                        notifyAll();
+                    }
+                }
+            }
+        }
+
+        private void fetchSegment(final int segment, @Nullable HttpURLConnection connection) throws IOException {
+            final long start = (long) segment * segmentSize;
+            final long end = Math.min(totalSize, start + segmentSize) - 1;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    if (connection == null) connection = openConnection(start, end, validator);
+                    synchronized (this) {
+                        if (closed) throw new IOException("Download was cancelled.");
+                        openConnections.add(connection);
+                    }
+                    final int status = connection.getResponseCode();
+                    if (status != HttpURLConnection.HTTP_PARTIAL) {
+                        throw new IOException("Expected a partial response, got " + status + ". The document might"
+                                + " have changed on the server.");
+                    }
+                    receive(connection, start, end);
+                    return;
+                } catch (IOException e) {
+                    if (attempt >= MAX_ATTEMPTS || isClosed()) throw e;
+                    Log.w(TAG, "Retrying segment " + segment + " of " + url + ": " + e.getMessage());
+                } finally {
+                    if (connection != null) {
+                        synchronized (this) {
+                            openConnections.remove(connection);
+                        }
+                        connection.disconnect();
+                        connection = null;
+                    }
+                }
+            }
+        }
+
+        private void receive(@NonNull final HttpURLConnection connection, final long start, final long end)
+                throws IOException {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            long position = start;
+            try (InputStream input = connection.getInputStream()) {
+                while (position <= end) {
+                    final int read = input.read(buffer, 0, (int) Math.min(buffer.length, end + 1 - position));
+                    if (read < 0) throw new IOException("Response ended early.");
+                    final ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                    while (data.hasRemaining()) {
+                        channel.write(data, position + data.position());
+                    }
+                    position += read;
+                    synchronized (this) {
+                        sampleBytes += read;
+                    }
+                }
+            }
+        }
+
+        private synchronized void segmentCompleted(final int segment) {
+            completedSegments.set(segment);
+            int firstIncomplete = completedSegments.nextClearBit(0);
+            completedBytes = Math.min(totalSize, (long) firstIncomplete * segmentSize);
+            notifyAll();
+            adaptConnections();
+        }
+
+        /**
+         * Measures the throughput once every connection finished a segment, and decides whether
+         * another connection is worth opening.
+         */
+        private void adaptConnections() {
+            if (!growing || ++sampleSegments < targetConnections) return;
+            final long now = System.nanoTime();
+            final double throughput = sampleBytes / ((now - sampleStartNanos) / 1e9);
+            sampleStartNanos = now;
+            sampleBytes = 0;
+            sampleSegments = 0;
+
+            if (lastThroughput > 0 && throughput < lastThroughput * MIN_SPEEDUP) {
+                // The last connection didn't help, so it's closed after its current segment.
+                growing = false;
+                targetConnections = Math.max(1, targetConnections - 1);
+            } else if (targetConnections < maxConnections && nextSegment < segmentCount) {
+                targetConnections++;
+                startConnection(null);
+            } else {
+                growing = false;
+            }
+            lastThroughput = throughput;
+            if (!growing) Log.d(TAG, "Downloading " + url + " over " + targetConnections + " connections.");
+        }
+
+        private synchronized boolean isClosed() {
+            return closed;
+        }
+
+        void close() {
+            final List<HttpURLConnection> connections;
+            synchronized (this) {
+                if (closed) return;
+                closed = true;
+                connections = new ArrayList<>(openConnections);
+                notifyAll();
+            }
+            for (HttpURLConnection connection : connections) {
+                connection.disconnect();
+            }
+            try {
+                file.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Could not close download file: " + e.getMessage(), e);
+            }
+            downloadFile.delete();
+        }
+
+        /** Reads the completed part of the download, waiting for segments that are still being fetched. */
+        class SegmentedInputStream extends InputStream {
+            private long position;
+
+            @Override
+            public int read() throws IOException {
+                final byte[] single = new byte[1];
+                return read(single, 0, 1) < 0 ? -1 : single[0] & 0xFF;
+            }
+
+            @Override
+            public int read(@NonNull final byte[] buffer, final int offset, final int count) throws IOException {
+                if (count == 0) return 0;
+                final long readable;
+                synchronized (Download.this) {
+                    while (position >= completedBytes) {
+                        if (position >= totalSize) return -1;
+                        if (failure != null) throw new IOException("Download failed.", failure);
+                        if (closed) throw new IOException("Download was cancelled.");
+                        try {
+                            Download.this.wait();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new InterruptedIOException("Interrupted while waiting for the download.");
+                        }
+                    }
+                    readable = completedBytes - position;
+                }
+
+                final ByteBuffer data = ByteBuffer.wrap(buffer, offset, (int) Math.min(count, readable));
+                while (data.hasRemaining()) {
+                    if (channel.read(data, position + data.position() - offset) < 0) break;
+                }
+                final int read = data.position() - offset;
+                position += read;
+                return read;
+            }
+
+            @Override
+            public int available() {
+                synchronized (Download.this) {
+                    return (int) Math.min(Integer.MAX_VALUE, completedBytes - position);
+                }
+            }
+
+            @Override
+            public void close() {
+                Download.this.close();
+            }
+        }
+    }
+}
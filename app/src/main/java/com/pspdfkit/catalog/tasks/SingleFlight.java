@@ -0,0 +1,57 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks;
+
+import androidx.annotation.NonNull;
+import io.reactivex.rxjava3.core.Single;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent executions of the same work. While the work for a key is in flight, all
+ * callers asking for that key share one subscription to it. The work is only cancelled once every
+ * caller has disposed its subscription.
+ *
+ * @param <K> Type of the keys identifying the work.
+ * @param <V> Type of the work's result.
+ */
+public final class SingleFlight<K, V> {
+    @NonNull
+    private final ConcurrentHashMap<K, Single<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a {@link Single} running the work for {@code key}. If the work for this key is already
+     * running, the returned single joins it instead of starting it again.
+     *
+     * @param key Key identifying the work.
+     * @param work Creates the work. Only called if no work for {@code key} is in flight.
+     * @return Single emitting the result of the (possibly shared) work.
+     */
+    @NonNull
+    public Single<V> execute(@NonNull final K key, @NonNull final Supplier<Single<V>> work) {
+        return Single.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, work.get())));
+    }
+
+    /** Returns the number of keys with work currently in flight. */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    @NonNull
+    private Single<V> share(@NonNull final K key, @NonNull final Single<V> work) {
+        final AtomicReference<Single<V>> shared = new AtomicReference<>();
+        // The work leaves the map once it terminates, or once the last caller disposed it.
+        shared.set(work.doFinally(() -> inFlight.remove(key, shared.get()))
+                .toObservable()
+                .publish()
+                .refCount()
+                .singleOrError());
+        return shared.get();
+    }
+}
@@ -13,6 +13,7 @@ import com.pspdfkit.catalog.SdkExample
 import com.pspdfkit.catalog.examples.java.AesEncryptedFileExample
 import com.pspdfkit.catalog.examples.java.AnnotationOverlayExample
 import com.pspdfkit.catalog.examples.java.AnnotationSelectionCustomizationExample
+import com.pspdfkit.catalog.examples.java.ChunkedEncryptedFileExample
 import com.pspdfkit.catalog.examples.java.CustomAnnotationCreationToolbarExample
 import com.pspdfkit.catalog.examples.java.CustomAnnotationInspectorExample
 import com.pspdfkit.catalog.examples.java.CustomDocumentDownloadExample
@@ -145,6 +146,7 @@ fun getSectionsWithExamples(context: Context) = listOf(
         ProgressProviderExample(context),
         PasswordExample(context),
         AesEncryptedFileExample(context),
+        ChunkedEncryptedFileExample(context),
         ImageDocumentExample(context),
         RemoteUrlExample(context),
     ),
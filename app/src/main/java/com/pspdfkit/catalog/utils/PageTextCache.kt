@@ -0,0 +1,61 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.utils
+
+import android.content.ComponentCallbacks2
+import android.util.Log
+import androidx.annotation.IntRange
+import androidx.collection.LruCache
+import com.pspdfkit.document.PdfDocument
+
+/**
+ * Keeps the text of recently used document pages in memory, so examples that search, count or
+ * read the same pages don't extract their text from the document again. Pages are keyed by the
+ * document's [PdfDocument.getUid] and their page index, and the least recently used pages are
+ * evicted once the cache holds more than [MAX_SIZE_CHARS] characters.
+ *
+ * The cache shrinks when the system asks the app to trim its memory, see [onTrimMemory].
+ */
+object PageTextCache {
+    private const val TAG = "PageTextCache"
+
+    /** Roughly 4 MB of text, as strings take two bytes per character. */
+    private const val MAX_SIZE_CHARS = 2 * 1024 * 1024
+
+    private data class Key(val documentUid: String, val pageIndex: Int)
+
+    private val cache =
+        object : LruCache<Key, String>(MAX_SIZE_CHARS) {
+            override fun sizeOf(key: Key, value: String) = value.length + 1
+        }
+
+    /** Returns the text of the page at [pageIndex], extracting it from [document] if it isn't cached. */
+    @JvmStatic
+    fun getPageText(document: PdfDocument, @IntRange(from = 0) pageIndex: Int): String {
+        val key = Key(document.uid, pageIndex)
+        cache[key]?.let { return it }
+        // Concurrent misses for the same page may both extract its text. That's wasted work, but harmless.
+        val pageText = document.getPageText(pageIndex)
+        cache.put(key, pageText)
+        return pageText
+    }
+
+    /**
+     * Releases cached text according to the [ComponentCallbacks2] trim memory [level]. Once the app
+     * is in the background all text is dropped, and while its UI is hidden only half of it is kept.
+     */
+    @JvmStatic
+    fun onTrimMemory(level: Int) {
+        when {
+            level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND -> cache.evictAll()
+            level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN -> cache.trimToSize(MAX_SIZE_CHARS / 2)
+            else -> return
+        }
+        Log.d(TAG, "Trimmed to ${cache.size()} characters (${cache.hitCount()} hits, ${cache.missCount()} misses).")
+    }
+}
@@ -62,6 +62,9 @@ import com.pspdfkit.configuration.theming.ThemeMode
 /** Catalog-wide helper for accessing the shared preferences. */
 val Context.dataStore: DataStore<Preferences> by preferencesDataStore(name = "settings")
 
+/** Usage statistics of the catalog's examples, kept separate from the user-facing [dataStore] settings. */
+val Context.exampleUsageDataStore: DataStore<Preferences> by preferencesDataStore(name = "example_usage")
+
 object CatalogPreferences {
     fun scrollDirection(context: Context) = RadioPreference(
         title = context.getString(R.string.radio_preference_scroll_direction),
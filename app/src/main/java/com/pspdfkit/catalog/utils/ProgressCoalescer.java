@@ -0,0 +1,147 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.view.Choreographer;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.reactivex.rxjava3.core.BackpressureStrategy;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.FlowableTransformer;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers progress updates on the main thread, at most once per display frame. Downloads report
+ * progress for every buffer they receive, which on a fast link means thousands of updates per
+ * second, each costing a main thread message. The coalescer only keeps the latest value, and
+ * delivers it with the next frame. The last value before the download finished is always
+ * delivered.
+ *
+ * <p>Values can be published from any thread.
+ *
+ * @param <T> Type of the progress values.
+ */
+public final class ProgressCoalescer<T> {
+    /** Runs callbacks on the thread progress is delivered on, aligned with its frames. */
+    public interface FrameScheduler {
+        void postFrameCallback(@NonNull Runnable callback);
+    }
+
+    /** Receives the coalesced progress. */
+    public interface Listener<T> {
+        void onProgress(@NonNull T value);
+    }
+
+    @NonNull
+    private final FrameScheduler frames;
+
+    @NonNull
+    private final Listener<T> listener;
+
+    @NonNull
+    private final AtomicReference<T> latest = new AtomicReference<>();
+
+    /** Whether a frame callback delivering {@link #latest} is pending. */
+    @NonNull
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** Runs after the last value was delivered, once {@link #finish(Runnable)} was called. */
+    @Nullable
+    private volatile Runnable terminal;
+
+    @NonNull
+    private final Runnable deliver = this::deliver;
+
+    /** Creates a coalescer delivering to {@code listener} with the main thread's frames. */
+    public ProgressCoalescer(@NonNull final Listener<T> listener) {
+        this(MainThreadFrames.INSTANCE, listener);
+    }
+
+    @VisibleForTesting
+    public ProgressCoalescer(@NonNull final FrameScheduler frames, @NonNull final Listener<T> listener) {
+        this.frames = frames;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns a transformer delivering the progress of a flowable with the main thread's frames.
+     * Completion and errors are delivered after the last value.
+     */
+    @NonNull
+    public static <T> FlowableTransformer<T, T> perFrame() {
+        return upstream -> Flowable.create(
+                emitter -> {
+                    final ProgressCoalescer<T> coalescer = new ProgressCoalescer<>(emitter::onNext);
+                    emitter.setDisposable(upstream.subscribe(
+                            coalescer::publish,
+                            error -> coalescer.finish(() -> emitter.onError(error)),
+                            () -> coalescer.finish(emitter::onComplete)));
+                },
+                BackpressureStrategy.LATEST);
+    }
+
+    /** Publishes a new progress value, replacing any value that wasn't delivered yet. */
+    public void publish(@NonNull final T value) {
+        latest.set(value);
+        schedule();
+    }
+
+    /** Delivers the last value and then runs {@code terminal}, with the next frame. */
+    public void finish(@NonNull final Runnable terminal) {
+        this.terminal = terminal;
+        schedule();
+    }
+
+    /**
+     * Delivers a pending value right away. Must be called on the thread values are delivered on,
+     * for example before reporting that the download completed.
+     */
+    @MainThread
+    public void flush() {
+        final T value = latest.getAndSet(null);
+        if (value != null) listener.onProgress(value);
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) frames.postFrameCallback(deliver);
+    }
+
+    private void deliver() {
+        // Values published from now on schedule another frame.
+        scheduled.set(false);
+        // Values are published before finish() is called, so once the terminal is seen, flushing delivers the last one.
+        final Runnable terminal = this.terminal;
+        flush();
+        if (terminal != null) {
+            this.terminal = null;
+            terminal.run();
+        }
+    }
+
+    /** Posts callbacks to the main thread's {@link Choreographer}, so they run with the next frame. */
+    private static final class MainThreadFrames implements FrameScheduler {
+        static final MainThreadFrames INSTANCE = new MainThreadFrames();
+
+        @NonNull
+        private final Handler handler = new Handler(Looper.getMainLooper());
+
+        @Override
+        public void postFrameCallback(@NonNull final Runnable callback) {
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                Choreographer.getInstance().postFrameCallback(frameTimeNanos -> callback.run());
+            } else {
+                handler.post(() -> Choreographer.getInstance().postFrameCallback(frameTimeNanos -> callback.run()));
+            }
+        }
+    }
+}
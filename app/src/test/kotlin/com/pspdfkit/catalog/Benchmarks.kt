@@ -0,0 +1,27 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog
+
+import org.junit.Assume.assumeTrue
+
+/**
+ * Opt-in switch for the benchmarks among the unit tests. They take long and only report numbers, so they are skipped
+ * unless `CATALOG_BENCHMARKS` is set, for example with `CATALOG_BENCHMARKS=1 ./gradlew :app:testDebugUnitTest`.
+ */
+object Benchmarks {
+    private const val VARIABLE = "CATALOG_BENCHMARKS"
+
+    /** Whether benchmarks run and tests may report measurements. */
+    val enabled: Boolean
+        get() = System.getenv(VARIABLE) != null
+
+    /** Skips the calling test unless benchmarks are enabled. */
+    fun assumeEnabled() {
+        assumeTrue("Set $VARIABLE to run benchmarks.", enabled)
+    }
+}
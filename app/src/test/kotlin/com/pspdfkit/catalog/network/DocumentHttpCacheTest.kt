@@ -0,0 +1,200 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.network
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import okhttp3.HttpUrl
+import okhttp3.HttpUrl.Companion.toHttpUrl
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.nio.file.Files
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import kotlin.concurrent.thread
+import kotlin.random.Random
+
+/** Runs [DocumentHttpCache] against a local server that answers conditional requests. */
+class DocumentHttpCacheTest {
+    private lateinit var server: HttpServer
+    private val executor = Executors.newCachedThreadPool()
+    private lateinit var directory: File
+
+    /** Documents by path. */
+    private val documents = HashMap<String, ByteArray>()
+
+    /** Requests the server received, as "path status". */
+    private val requests = CopyOnWriteArrayList<String>()
+
+    @Volatile
+    private var version = 1
+
+    @Volatile
+    private var cacheControl = "no-cache"
+
+    /** Called before the server answers a conditional request with `304 Not Modified`. */
+    @Volatile
+    private var beforeNotModified: () -> Unit = {}
+
+    @Before
+    fun setUp() {
+        server = HttpServer.create(InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0)
+        server.createContext("/") { exchange -> exchange.use { serve(it) } }
+        // Requests are answered in parallel, so one can be held back while others are served.
+        server.executor = executor
+        server.start()
+        directory = Files.createTempDirectory("document-cache").toFile()
+        for (name in listOf("a", "b", "c")) documents["/$name.pdf"] = Random(name.hashCode()).nextBytes(DOCUMENT_SIZE)
+    }
+
+    @After
+    fun tearDown() {
+        server.stop(0)
+        executor.shutdown()
+        directory.deleteRecursively()
+    }
+
+    @Test
+    fun `unchanged document is served from disk after a single 304`() {
+        val cache = DocumentHttpCache.forDirectory(directory)
+        assertArrayEquals(documents["/a.pdf"], cache.fetch(url("a")).readBytes())
+        assertArrayEquals(documents["/a.pdf"], cache.fetch(url("a")).readBytes())
+
+        assertEquals(listOf("/a.pdf 200", "/a.pdf 304"), requests)
+        val stats = cache.stats()
+        assertEquals(1, stats.misses)
+        assertEquals(1, stats.revalidatedHits)
+        assertEquals(DOCUMENT_SIZE.toLong(), stats.bytesSaved)
+        assertEquals(DOCUMENT_SIZE.toLong(), stats.bytesDownloaded)
+        assertEquals(0.5, stats.hitRatio, 0.0)
+    }
+
+    @Test
+    fun `fresh document is served without contacting the server`() {
+        cacheControl = "max-age=3600"
+        val cache = DocumentHttpCache.forDirectory(directory)
+        cache.fetch(url("a"))
+        assertArrayEquals(documents["/a.pdf"], cache.fetch(url("a")).readBytes())
+
+        assertEquals(listOf("/a.pdf 200"), requests)
+        assertEquals(1, cache.stats().freshHits)
+    }
+
+    @Test
+    fun `fresh documents are served while another document downloads`() {
+        cacheControl = "max-age=3600"
+        val cache = DocumentHttpCache.forDirectory(directory)
+        cache.fetch(url("a"))
+
+        // The download of "b" pauses until "a" was served, or gives up after a while if serving "a" waits for it.
+        val downloading = CountDownLatch(1)
+        val freshHitServed = CountDownLatch(1)
+        var servedWhileDownloading = false
+        val download =
+            thread {
+                cache.fetch(url("b")) { _, _ ->
+                    if (downloading.count > 0) {
+                        downloading.countDown()
+                        servedWhileDownloading = freshHitServed.await(5, TimeUnit.SECONDS)
+                    }
+                }
+            }
+        downloading.await()
+        assertArrayEquals(documents["/a.pdf"], cache.fetch(url("a")).readBytes())
+        freshHitServed.countDown()
+        download.join()
+
+        assertTrue(servedWhileDownloading)
+        assertEquals(1, cache.stats().freshHits)
+    }
+
+    @Test
+    fun `changed document is downloaded again`() {
+        val cache = DocumentHttpCache.forDirectory(directory)
+        cache.fetch(url("a"))
+        version = 2
+        documents["/a.pdf"] = Random(2).nextBytes(DOCUMENT_SIZE)
+        assertArrayEquals(documents["/a.pdf"], cache.fetch(url("a")).readBytes())
+
+        assertEquals(listOf("/a.pdf 200", "/a.pdf 200"), requests)
+        assertEquals(2, cache.stats().misses)
+    }
+
+    @Test
+    fun `document evicted while it is revalidated is downloaded again`() {
+        val cache = DocumentHttpCache.forDirectory(directory, 2L * DOCUMENT_SIZE)
+        cache.fetch(url("a")).setLastModified(1_000)
+
+        // The revalidation of "a" is answered once downloading "b" and "c" evicted it.
+        val revalidating = CountDownLatch(1)
+        val evicted = CountDownLatch(1)
+        beforeNotModified = {
+            revalidating.countDown()
+            evicted.await(5, TimeUnit.SECONDS)
+        }
+        var revalidated: File? = null
+        val revalidation = thread { revalidated = cache.fetch(url("a")) }
+        revalidating.await()
+        cache.fetch(url("b"))
+        cache.fetch(url("c"))
+        evicted.countDown()
+        revalidation.join()
+
+        assertArrayEquals(documents["/a.pdf"], revalidated!!.readBytes())
+        assertEquals(listOf("/a.pdf 200", "/a.pdf 304", "/b.pdf 200", "/c.pdf 200", "/a.pdf 200"), requests)
+        assertEquals(0, cache.stats().revalidatedHits)
+    }
+
+    @Test
+    fun `least recently used documents are evicted`() {
+        val cache = DocumentHttpCache.forDirectory(directory, 2L * DOCUMENT_SIZE)
+        val a = cache.fetch(url("a"))
+        a.setLastModified(1_000)
+        val b = cache.fetch(url("b"))
+        b.setLastModified(2_000)
+        cache.fetch(url("a")) // Makes "b" the least recently used document.
+        val c = cache.fetch(url("c"))
+
+        assertTrue(a.exists())
+        assertFalse(b.exists())
+        assertTrue(c.exists())
+    }
+
+    private fun url(name: String): HttpUrl = "http://${server.address.hostString}:${server.address.port}/$name.pdf".toHttpUrl()
+
+    private fun serve(exchange: HttpExchange) {
+        val path = exchange.requestURI.path
+        val etag = "\"$path-v$version\""
+        exchange.responseHeaders.add("ETag", etag)
+        exchange.responseHeaders.add("Cache-Control", cacheControl)
+        if (exchange.requestHeaders.getFirst("If-None-Match") == etag) {
+            requests += "$path 304"
+            beforeNotModified()
+            exchange.sendResponseHeaders(304, -1)
+            return
+        }
+        val document = documents.getValue(path)
+        requests += "$path 200"
+        exchange.sendResponseHeaders(200, document.size.toLong())
+        exchange.responseBody.write(document)
+    }
+
+    companion object {
+        private const val DOCUMENT_SIZE = 256 * 1024
+    }
+}
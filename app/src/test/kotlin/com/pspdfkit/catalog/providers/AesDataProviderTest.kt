@@ -0,0 +1,176 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers
+
+import com.pspdfkit.catalog.examples.java.AesEncryptedFileExample.AesDataProvider
+import com.pspdfkit.document.providers.WritableDataProvider
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.FileOutputStream
+import java.nio.file.Files
+import javax.crypto.Cipher
+import javax.crypto.spec.IvParameterSpec
+import javax.crypto.spec.SecretKeySpec
+import kotlin.random.Random
+
+/** Checks that [AesDataProvider] decrypts the AES-CTR encrypted documents it reads, and keeps them intact when saving. */
+class AesDataProviderTest {
+    private val key = Random(7).nextBytes(32)
+    private val document = Random(42).nextBytes(DOCUMENT_SIZE)
+    private lateinit var directory: File
+    private lateinit var aesFile: File
+
+    @Before
+    fun setUp() {
+        directory = Files.createTempDirectory("aes").toFile()
+        aesFile = File(directory, "document.pdf")
+    }
+
+    @After
+    fun tearDown() {
+        directory.deleteRecursively()
+    }
+
+    @Test
+    fun `reads match when the counter carries into the upper half of the IV`() {
+        // The counter of the first block is 2^64 - 4, so the fifth block carries into the IV's upper eight bytes.
+        val iv = ByteArray(16) { if (it < 8) 0x12 else -1 }
+        iv[15] = 0xFC.toByte()
+        writeAesFile(iv, document)
+
+        val provider = AesDataProvider(aesFile.absolutePath, key, 1)
+        try {
+            // Reading backwards reaches every page by seeking, reading forwards continues the cipher's counter.
+            val offsets = (0L until DOCUMENT_SIZE - 1000L step 1000).toList()
+            for (offset in offsets.reversed() + offsets) {
+                val data = provider.read(1000, offset)
+                assertArrayEquals("at $offset", document.copyOfRange(offset.toInt(), offset.toInt() + 1000), data)
+            }
+        } finally {
+            provider.release()
+        }
+    }
+
+    @Test
+    fun `appended data is read after reopening`() {
+        writeAesFile(Random(3).nextBytes(16), document)
+        val appended = Random(4).nextBytes(APPENDED_SIZE)
+        append(appended)
+
+        assertDecrypts(document + appended)
+    }
+
+    @Test
+    fun `bytes of an interrupted append are ignored and truncated`() {
+        writeAesFile(Random(3).nextBytes(16), document)
+        val appended = Random(4).nextBytes(APPENDED_SIZE)
+        append(appended)
+        // A crash in the middle of the next append leaves bytes the tail marker doesn't cover.
+        FileOutputStream(aesFile, true).use { it.write(Random(5).nextBytes(1000)) }
+
+        assertDecrypts(document + appended)
+
+        val appendedAfterCrash = Random(6).nextBytes(APPENDED_SIZE)
+        append(appendedAfterCrash)
+        assertEquals(IV_SIZE + DOCUMENT_SIZE + 2L * APPENDED_SIZE, aesFile.length())
+        assertDecrypts(document + appended + appendedAfterCrash)
+    }
+
+    @Test
+    fun `rewritten file replaces the original`() {
+        writeAesFile(Random(3).nextBytes(16), document)
+        val rewritten = Random(4).nextBytes(DOCUMENT_SIZE / 2)
+        val provider = AesDataProvider(aesFile.absolutePath, key, 1)
+        try {
+            assertTrue(provider.startWrite(WritableDataProvider.WriteMode.REWRITE_FILE))
+            assertTrue(provider.write(rewritten))
+            assertTrue(provider.finishWrite())
+            assertArrayEquals(rewritten, provider.read(provider.size, 0))
+        } finally {
+            provider.release()
+        }
+
+        assertDecrypts(rewritten)
+    }
+
+    @Test
+    fun `failing rewrite leaves the original file unchanged`() {
+        writeAesFile(Random(3).nextBytes(16), document)
+        val original = aesFile.readBytes()
+        val provider = AesDataProvider(aesFile.absolutePath, key, 1)
+        try {
+            assertArrayEquals(document, provider.read(provider.size, 0))
+            assertTrue(provider.startWrite(WritableDataProvider.WriteMode.REWRITE_FILE))
+            // Closing the output makes the pipeline's write stage fail, like a full disk would.
+            val output = AesDataProvider::class.java.getDeclaredField("fos")
+            output.isAccessible = true
+            (output.get(provider) as FileOutputStream).channel.close()
+            provider.write(Random(4).nextBytes(DOCUMENT_SIZE))
+
+            assertFalse(provider.finishWrite())
+            assertArrayEquals(document, provider.read(provider.size, 0))
+        } finally {
+            provider.release()
+        }
+
+        assertArrayEquals(original, aesFile.readBytes())
+        assertArrayEquals(arrayOf(aesFile.name), directory.list())
+    }
+
+    /** Appends [data] through a new provider, like an incremental save does. */
+    private fun append(data: ByteArray) {
+        val provider = AesDataProvider(aesFile.absolutePath, key, 1)
+        try {
+            assertTrue(provider.startWrite(WritableDataProvider.WriteMode.APPEND_TO_FILE))
+            assertTrue(provider.write(data))
+            assertTrue(provider.finishWrite())
+        } finally {
+            provider.release()
+        }
+    }
+
+    /** Opens the file with a new provider and checks that it decrypts to [expected]. */
+    private fun assertDecrypts(expected: ByteArray) {
+        val provider = AesDataProvider(aesFile.absolutePath, key, 1)
+        try {
+            assertEquals(expected.size.toLong(), provider.size)
+            assertArrayEquals(expected, provider.read(expected.size.toLong(), 0))
+        } finally {
+            provider.release()
+        }
+    }
+
+    /** Writes [plaintext] encrypted with [iv] in the format read by [AesDataProvider]. */
+    private fun writeAesFile(
+        iv: ByteArray,
+        plaintext: ByteArray,
+    ) {
+        val cipher = Cipher.getInstance("AES/CTR/NoPadding")
+        cipher.init(Cipher.ENCRYPT_MODE, SecretKeySpec(key, "AES"), IvParameterSpec(iv))
+        aesFile.outputStream().use { output ->
+            output.write(iv)
+            output.write(cipher.doFinal(plaintext))
+        }
+    }
+
+    companion object {
+        /** Spans a few of the provider's 64 KB pages, and ends in the middle of an AES block. */
+        private const val DOCUMENT_SIZE = 4 * 64 * 1024 + 321
+
+        /** Continues in the middle of the document's last AES block. */
+        private const val APPENDED_SIZE = 70 * 1024 + 5
+
+        private const val IV_SIZE = 16
+    }
+}
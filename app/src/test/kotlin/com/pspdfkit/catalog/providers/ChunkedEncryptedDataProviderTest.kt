@@ -0,0 +1,155 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers
+
+import com.pspdfkit.catalog.Benchmarks
+import com.pspdfkit.catalog.examples.java.AesEncryptedFileExample.AesDataProvider
+import com.pspdfkit.document.providers.DataProvider
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.RandomAccessFile
+import javax.crypto.Cipher
+import javax.crypto.spec.IvParameterSpec
+import javax.crypto.spec.SecretKeySpec
+import kotlin.random.Random
+
+/**
+ * Migrates an AES-CTR encrypted document (the format read by [AesDataProvider]) into a [ChunkedEncryptedContainer], checks
+ * that both providers return the same data, and compares their read throughput if [Benchmarks] are enabled.
+ */
+class ChunkedEncryptedDataProviderTest {
+    private val key = Random(7).nextBytes(32)
+    private lateinit var document: ByteArray
+    private lateinit var aesFile: File
+    private lateinit var containerFile: File
+
+    @Before
+    fun setUp() {
+        document = Random(42).nextBytes(DOCUMENT_SIZE)
+        aesFile = File.createTempFile("aes", ".pdf")
+        val iv = Random(3).nextBytes(16)
+        val cipher = Cipher.getInstance("AES/CTR/NoPadding")
+        cipher.init(Cipher.ENCRYPT_MODE, SecretKeySpec(key, "AES"), IvParameterSpec(iv))
+        aesFile.outputStream().use { output ->
+            output.write(iv)
+            output.write(cipher.doFinal(document))
+        }
+
+        containerFile = File.createTempFile("container", ".chunked")
+        val source = aesProvider()
+        try {
+            ChunkedEncryptedContainer.encrypt(source, containerFile, key, ChunkedEncryptedContainer.DEFAULT_CHUNK_SIZE)
+        } finally {
+            source.release()
+        }
+    }
+
+    @After
+    fun tearDown() {
+        aesFile.delete()
+        containerFile.delete()
+    }
+
+    @Test
+    fun `migrated container holds the same document`() {
+        val provider = ChunkedEncryptedDataProvider(containerFile, key)
+        try {
+            assertEquals(DOCUMENT_SIZE.toLong(), provider.size)
+            assertArrayEquals(document, provider.read(DOCUMENT_SIZE.toLong(), 0))
+            val random = Random(1)
+            repeat(200) {
+                val offset = random.nextInt(DOCUMENT_SIZE)
+                val size = random.nextInt(4 * ChunkedEncryptedContainer.DEFAULT_CHUNK_SIZE)
+                val expected = document.copyOfRange(offset, minOf(offset + size, DOCUMENT_SIZE))
+                assertArrayEquals(expected, provider.read(size.toLong(), offset.toLong()))
+            }
+            assertTrue(provider.verify())
+        } finally {
+            provider.release()
+        }
+    }
+
+    @Test
+    fun `tampered chunk fails verification without affecting other chunks`() {
+        val chunkSize = ChunkedEncryptedContainer.DEFAULT_CHUNK_SIZE.toLong()
+        val sealedChunkSize = ChunkedEncryptedContainer.NONCE_SIZE + chunkSize + ChunkedEncryptedContainer.TAG_SIZE
+        // Flip a byte inside the ciphertext of the third chunk.
+        val tamperedPosition = ChunkedEncryptedContainer.HEADER_SIZE + 2 * sealedChunkSize + ChunkedEncryptedContainer.NONCE_SIZE + 100
+        RandomAccessFile(containerFile, "rw").use { file ->
+            file.seek(tamperedPosition)
+            val byte = file.read()
+            file.seek(tamperedPosition)
+            file.write(byte xor 0xFF)
+        }
+
+        val provider = ChunkedEncryptedDataProvider(containerFile, key)
+        try {
+            assertFalse(provider.verify())
+            assertFalse(provider.verify(2 * chunkSize, 1))
+            assertTrue(provider.verify(0, 2 * chunkSize))
+            assertTrue(provider.verify(3 * chunkSize, DOCUMENT_SIZE - 3 * chunkSize))
+            assertEquals(0, provider.read(chunkSize, 2 * chunkSize).size)
+            assertArrayEquals(document.copyOfRange(0, 100), provider.read(100, 0))
+        } finally {
+            provider.release()
+        }
+    }
+
+    @Test
+    fun `benchmark chunked container against AES-CTR provider`() {
+        Benchmarks.assumeEnabled()
+        val aes = aesProvider()
+        val chunked = ChunkedEncryptedDataProvider(containerFile, key)
+        try {
+            // Warm up both providers, so we don't measure class loading and JIT compilation.
+            repeat(WARMUP_ITERATIONS) {
+                readSequentially(aes)
+                readSequentially(chunked)
+            }
+            val aesNanos = measure { readSequentially(aes) }
+            val chunkedNanos = measure { readSequentially(chunked) }
+            println("Encrypted read throughput, ${DOCUMENT_SIZE / MEGABYTE} MB document in ${LARGE_READ_SIZE / MEGABYTE} MB reads:")
+            println("  AesDataProvider (AES-CTR):              %.1f MB/s".format(throughput(aesNanos)))
+            println("  ChunkedEncryptedDataProvider (AES-GCM): %.1f MB/s".format(throughput(chunkedNanos)))
+        } finally {
+            aes.release()
+            chunked.release()
+        }
+    }
+
+    private fun aesProvider() = AesDataProvider(aesFile.absolutePath, key, AesDataProvider.DEFAULT_MAX_CONCURRENT_READS)
+
+    private fun readSequentially(provider: DataProvider) {
+        var offset = 0L
+        while (offset < DOCUMENT_SIZE) {
+            offset += provider.read(LARGE_READ_SIZE.toLong(), offset).size
+        }
+    }
+
+    private inline fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        repeat(MEASURED_ITERATIONS) { block() }
+        return (System.nanoTime() - start) / MEASURED_ITERATIONS
+    }
+
+    private fun throughput(nanosPerIteration: Long): Double = DOCUMENT_SIZE.toDouble() / MEGABYTE / (nanosPerIteration / 1e9)
+
+    companion object {
+        private const val MEGABYTE = 1024 * 1024
+        private const val DOCUMENT_SIZE = 32 * MEGABYTE + 12345
+        private const val LARGE_READ_SIZE = 4 * MEGABYTE
+        private const val WARMUP_ITERATIONS = 2
+        private const val MEASURED_ITERATIONS = 3
+    }
+}
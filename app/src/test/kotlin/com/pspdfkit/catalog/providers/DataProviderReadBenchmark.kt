@@ -0,0 +1,191 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers
+
+import com.pspdfkit.document.providers.DataProvider
+import java.lang.management.ManagementFactory
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicReference
+import com.sun.management.ThreadMXBean as AllocationThreadMXBean
+
+/** Results of replaying a [ReadTrace] with a fixed number of concurrent readers. */
+data class ReadBenchmarkResult(
+    val provider: String,
+    val readers: Int,
+    val reads: Long,
+    val bytes: Long,
+    val nanos: Long,
+    val p50LatencyNanos: Long,
+    val p99LatencyNanos: Long,
+    /** Bytes allocated by the reader threads, or -1 if the JVM can't measure allocations. */
+    val allocatedBytes: Long,
+) {
+    val readsPerSecond: Double get() = reads / (nanos / 1e9)
+
+    val megabytesPerSecond: Double get() = bytes / MEGABYTE / (nanos / 1e9)
+
+    val allocatedMegabytesPerSecond: Double get() = if (allocatedBytes < 0) Double.NaN else allocatedBytes / MEGABYTE / (nanos / 1e9)
+
+    fun format(): String =
+        "%-32s %2d readers  %9.0f reads/s  %8.1f MB/s  p50 %7.1f us  p99 %8.1f us  alloc %8.1f MB/s".format(
+            provider,
+            readers,
+            readsPerSecond,
+            megabytesPerSecond,
+            p50LatencyNanos / 1e3,
+            p99LatencyNanos / 1e3,
+            allocatedMegabytesPerSecond,
+        )
+
+    fun toCsv(): String =
+        listOf(provider, readers, reads, bytes, nanos, p50LatencyNanos, p99LatencyNanos, allocatedBytes).joinToString(",")
+
+    companion object {
+        const val CSV_HEADER = "provider,readers,reads,bytes,nanos,p50_nanos,p99_nanos,allocated_bytes"
+        private const val MEGABYTE = 1024.0 * 1024.0
+    }
+}
+
+/**
+ * Replays a [ReadTrace] against a [DataProvider] from several threads at once, the way the PDF engine reads a document
+ * while rendering pages in parallel.
+ *
+ * With `n` readers, reader `i` replays every traced thread `t` with `t % n == i` one after another. When there are
+ * more readers than traced threads, readers replay the traced threads again, so every reader has work. Each
+ * configuration is run [warmupIterations] times before the measured iterations, so class loading and JIT compilation
+ * aren't measured.
+ */
+class DataProviderReadBenchmark(
+    private val trace: ReadTrace,
+    private val warmupIterations: Int = 2,
+    private val measuredIterations: Int = 5,
+) {
+    private val threadMXBean = ManagementFactory.getThreadMXBean() as? AllocationThreadMXBean
+
+    init {
+        threadMXBean?.let { if (it.isThreadAllocatedMemorySupported) it.isThreadAllocatedMemoryEnabled = true }
+    }
+
+    /** Replays the trace once with [readers] concurrent readers for every iteration, and returns the measured iterations. */
+    fun run(
+        name: String,
+        provider: DataProvider,
+        readers: Int,
+    ): ReadBenchmarkResult {
+        repeat(warmupIterations) { replay(provider, readers) }
+
+        var reads = 0L
+        var bytes = 0L
+        var nanos = 0L
+        var allocatedBytes = 0L
+        val latencies = mutableListOf<LongArray>()
+        repeat(measuredIterations) {
+            val iteration = replay(provider, readers)
+            nanos += iteration.nanos
+            for (reader in iteration.readers) {
+                reads += reader.latencies.size
+                bytes += reader.bytes
+                allocatedBytes = if (allocatedBytes < 0 || reader.allocatedBytes < 0) -1 else allocatedBytes + reader.allocatedBytes
+                latencies += reader.latencies
+            }
+        }
+
+        val sortedLatencies = LongArray(latencies.sumOf { it.size })
+        var position = 0
+        for (readerLatencies in latencies) {
+            readerLatencies.copyInto(sortedLatencies, position)
+            position += readerLatencies.size
+        }
+        sortedLatencies.sort()
+        return ReadBenchmarkResult(
+            provider = name,
+            readers = readers,
+            reads = reads,
+            bytes = bytes,
+            nanos = nanos,
+            p50LatencyNanos = sortedLatencies.percentile(0.50),
+            p99LatencyNanos = sortedLatencies.percentile(0.99),
+            allocatedBytes = allocatedBytes,
+        )
+    }
+
+    private fun replay(
+        provider: DataProvider,
+        readers: Int,
+    ): Iteration {
+        val assignments = List(readers) { reader -> readsOf(reader, readers) }
+        val results = arrayOfNulls<ReaderResult>(readers)
+        val failure = AtomicReference<Throwable>()
+        val ready = CountDownLatch(readers)
+        val start = CountDownLatch(1)
+        val threads =
+            List(readers) { reader ->
+                Thread({
+                    try {
+                        ready.countDown()
+                        start.await()
+                        results[reader] = replayReads(provider, assignments[reader])
+                    } catch (e: Throwable) {
+                        failure.compareAndSet(null, e)
+                    }
+                }, "Reader $reader")
+            }
+        threads.forEach { it.start() }
+        ready.await()
+        val startTime = System.nanoTime()
+        start.countDown()
+        threads.forEach { it.join() }
+        val nanos = System.nanoTime() - startTime
+        failure.get()?.let { throw it }
+        return Iteration(nanos, results.map { it!! })
+    }
+
+    private fun readsOf(
+        reader: Int,
+        readers: Int,
+    ): List<TracedRead> {
+        val threads = trace.threads
+        if (readers > threads.size) return threads[reader % threads.size]
+        return threads.indices.filter { it % readers == reader }.flatMap { threads[it] }
+    }
+
+    private fun replayReads(
+        provider: DataProvider,
+        reads: List<TracedRead>,
+    ): ReaderResult {
+        val threadId = Thread.currentThread().id
+        val latencies = LongArray(reads.size)
+        var bytes = 0L
+        val allocatedBefore = allocatedBytes(threadId)
+        for ((index, read) in reads.withIndex()) {
+            val start = System.nanoTime()
+            val data = provider.read(read.size.toLong(), read.offset)
+            latencies[index] = System.nanoTime() - start
+            bytes += data.size
+        }
+        val allocatedAfter = allocatedBytes(threadId)
+        val allocated = if (allocatedBefore < 0 || allocatedAfter < 0) -1 else allocatedAfter - allocatedBefore
+        return ReaderResult(latencies, bytes, allocated)
+    }
+
+    private fun allocatedBytes(threadId: Long): Long = threadMXBean?.getThreadAllocatedBytes(threadId) ?: -1
+
+    private fun LongArray.percentile(percentile: Double): Long =
+        if (isEmpty()) 0 else this[minOf(size - 1, (percentile * size).toInt())]
+
+    private class Iteration(
+        val nanos: Long,
+        val readers: List<ReaderResult>,
+    )
+
+    private class ReaderResult(
+        val latencies: LongArray,
+        val bytes: Long,
+        val allocatedBytes: Long,
+    )
+}
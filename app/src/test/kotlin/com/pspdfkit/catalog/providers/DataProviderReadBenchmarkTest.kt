@@ -0,0 +1,145 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers
+
+import com.pspdfkit.catalog.Benchmarks
+import com.pspdfkit.catalog.examples.java.AesEncryptedFileExample.AesDataProvider
+import com.pspdfkit.catalog.examples.kotlin.FileDataProvider
+import com.pspdfkit.document.providers.DataProvider
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import javax.crypto.Cipher
+import javax.crypto.spec.IvParameterSpec
+import javax.crypto.spec.SecretKeySpec
+import kotlin.random.Random
+
+/**
+ * Replays PDF engine read traces against the catalog's data providers with 1 to 8 concurrent readers, and reports
+ * throughput, latency, and allocation rate for each of them. The benchmark only runs if [Benchmarks] are enabled.
+ *
+ * A recorded trace can be replayed by setting `DATA_PROVIDER_TRACE` to a trace file (see [ReadTrace]) and
+ * `DATA_PROVIDER_DOCUMENT` to the document it was recorded with. Otherwise, a synthetic trace over a random document is
+ * used. Setting `DATA_PROVIDER_BENCHMARK_REPORT` writes the results as CSV to that file, so CI runs can be compared.
+ */
+class DataProviderReadBenchmarkTest {
+    private val key = Random(7).nextBytes(32)
+    private lateinit var document: ByteArray
+    private lateinit var trace: ReadTrace
+    private lateinit var plainFile: File
+    private lateinit var aesFile: File
+    private lateinit var containerFile: File
+
+    @Before
+    fun setUp() {
+        val recordedTrace = System.getenv(TRACE_VARIABLE)
+        val recordedDocument = System.getenv(DOCUMENT_VARIABLE)
+        if (recordedTrace != null && recordedDocument != null) {
+            document = File(recordedDocument).readBytes()
+            trace = ReadTrace.parse(File(recordedTrace))
+        } else {
+            document = Random(42).nextBytes(DOCUMENT_SIZE)
+            trace = ReadTrace.synthetic(document.size.toLong())
+        }
+
+        plainFile = File.createTempFile("plain", ".pdf")
+        plainFile.writeBytes(document)
+
+        aesFile = File.createTempFile("aes", ".pdf")
+        writeAesFile()
+
+        containerFile = File.createTempFile("container", ".chunked")
+        val source = FileDataProvider(plainFile)
+        try {
+            ChunkedEncryptedContainer.encrypt(source, containerFile, key, ChunkedEncryptedContainer.DEFAULT_CHUNK_SIZE)
+        } finally {
+            source.release()
+        }
+    }
+
+    @After
+    fun tearDown() {
+        plainFile.delete()
+        aesFile.delete()
+        containerFile.delete()
+    }
+
+    @Test
+    fun `providers return the traced document ranges`() {
+        for ((name, factory) in providers()) {
+            val provider = factory()
+            try {
+                for (read in trace.threads.flatten()) {
+                    val start = minOf(read.offset, document.size.toLong()).toInt()
+                    val end = minOf(read.offset + read.size, document.size.toLong()).toInt()
+                    val data = provider.read(read.size.toLong(), read.offset)
+                    assertArrayEquals("$name at ${read.offset}", document.copyOfRange(start, end), data)
+                }
+            } finally {
+                provider.release()
+            }
+        }
+    }
+
+    @Test
+    fun `benchmark concurrent trace replay`() {
+        Benchmarks.assumeEnabled()
+        val benchmark = DataProviderReadBenchmark(trace)
+        val results = mutableListOf<ReadBenchmarkResult>()
+        println("Replaying ${trace.readCount} reads from ${trace.threads.size} threads over a ${document.size / 1024} KB document:")
+        for ((name, factory) in providers()) {
+            val provider = factory()
+            try {
+                for (readers in READER_COUNTS) {
+                    val result = benchmark.run(name, provider, readers)
+                    println("  " + result.format())
+                    results += result
+                }
+            } finally {
+                provider.release()
+            }
+        }
+
+        System.getenv(REPORT_VARIABLE)?.let { report ->
+            val lines = listOf(ReadBenchmarkResult.CSV_HEADER) + results.map { it.toCsv() }
+            File(report).writeText(lines.joinToString("\n", postfix = "\n"))
+        }
+    }
+
+    private fun writeAesFile() {
+        val iv = Random.nextBytes(16)
+        val cipher = Cipher.getInstance("AES/CTR/NoPadding")
+        cipher.init(Cipher.ENCRYPT_MODE, SecretKeySpec(key, "AES"), IvParameterSpec(iv))
+        aesFile.outputStream().use { output ->
+            output.write(iv)
+            output.write(cipher.doFinal(document))
+        }
+    }
+
+    /**
+     * Providers that can run on the JVM. `RawResourceDataProvider` needs an Android context, but reads through the same
+     * [WindowedInputStreamDataProvider] path as [FileDataProvider] once its stream is open, so that path is covered by it.
+     */
+    private fun providers(): List<Pair<String, () -> DataProvider>> =
+        listOf(
+            "FileDataProvider" to { FileDataProvider(plainFile) },
+            "AesDataProvider" to { AesDataProvider(aesFile.absolutePath, key, AesDataProvider.DEFAULT_MAX_CONCURRENT_READS) },
+            "ChunkedEncryptedDataProvider" to { ChunkedEncryptedDataProvider(containerFile, key) },
+        )
+
+    companion object {
+        private const val DOCUMENT_SIZE = 16 * 1024 * 1024 + 321
+        private val READER_COUNTS = listOf(1, 2, 4, 8)
+
+        private const val TRACE_VARIABLE = "DATA_PROVIDER_TRACE"
+        private const val DOCUMENT_VARIABLE = "DATA_PROVIDER_DOCUMENT"
+        private const val REPORT_VARIABLE = "DATA_PROVIDER_BENCHMARK_REPORT"
+    }
+}
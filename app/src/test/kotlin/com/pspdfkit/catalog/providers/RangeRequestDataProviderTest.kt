@@ -0,0 +1,156 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers
+
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.IOException
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.random.Random
+
+/** Runs [RangeRequestDataProvider] against a local server standing in for a range-capable web server. */
+class RangeRequestDataProviderTest {
+    private val document = Random(42).nextBytes(DOCUMENT_SIZE)
+    private val executor = Executors.newCachedThreadPool()
+    private lateinit var server: HttpServer
+    private lateinit var cacheFile: File
+
+    /** Requests for ranges in the middle of the document wait until this is released. */
+    private val middleRangesReleased = CountDownLatch(1)
+    private val partialResponses = AtomicInteger()
+
+    @Volatile
+    private var rangesSupported = true
+
+    @Before
+    fun setUp() {
+        server = HttpServer.create(InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0)
+        server.executor = executor
+        server.createContext("/document.pdf") { exchange -> exchange.use { serve(it) } }
+        server.start()
+        cacheFile = File.createTempFile("remote", ".pdf")
+        cacheFile.delete()
+    }
+
+    @After
+    fun tearDown() {
+        middleRangesReleased.countDown()
+        server.stop(0)
+        executor.shutdownNow()
+        cacheFile.delete()
+        File(cacheFile.path + ".blocks").delete()
+    }
+
+    @Test
+    fun `first and last blocks are served before the download completes`() {
+        val provider = RangeRequestDataProvider(url(), cacheFile)
+        try {
+            // The PDF engine starts with the trailer at the end, then the first page of a linearized document.
+            assertRead(provider, DOCUMENT_SIZE - 1024L, 1024)
+            assertRead(provider, 0, 4096)
+            assertFalse(provider.isComplete)
+
+            middleRangesReleased.countDown()
+            val random = Random(1)
+            repeat(200) { assertRead(provider, random.nextLong(DOCUMENT_SIZE.toLong()), random.nextInt(256 * 1024)) }
+            awaitComplete(provider)
+            assertTrue(partialResponses.get() > 1)
+        } finally {
+            provider.release()
+        }
+    }
+
+    @Test
+    fun `fetched document is reused without the server`() {
+        middleRangesReleased.countDown()
+        val provider = RangeRequestDataProvider(url(), cacheFile)
+        try {
+            awaitComplete(provider)
+        } finally {
+            provider.release()
+        }
+
+        server.stop(0)
+        val offlineProvider = RangeRequestDataProvider(url(), cacheFile)
+        try {
+            assertRead(offlineProvider, 0, DOCUMENT_SIZE)
+        } finally {
+            offlineProvider.release()
+        }
+    }
+
+    @Test
+    fun `servers without range support are downloaded in order`() {
+        rangesSupported = false
+        val provider = RangeRequestDataProvider(url(), cacheFile)
+        try {
+            val random = Random(2)
+            repeat(50) { assertRead(provider, random.nextLong(DOCUMENT_SIZE.toLong()), random.nextInt(256 * 1024)) }
+            awaitComplete(provider)
+        } finally {
+            provider.release()
+        }
+    }
+
+    private fun url() = "http://${server.address.hostString}:${server.address.port}/document.pdf"
+
+    private fun assertRead(
+        provider: RangeRequestDataProvider,
+        offset: Long,
+        size: Int,
+    ) {
+        val expected = document.copyOfRange(offset.toInt(), minOf(offset.toInt() + size, DOCUMENT_SIZE))
+        assertArrayEquals("read at $offset", expected, provider.read(size.toLong(), offset))
+    }
+
+    private fun awaitComplete(provider: RangeRequestDataProvider) {
+        val deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10)
+        while (!provider.isComplete && System.nanoTime() < deadline) Thread.sleep(10)
+        assertTrue(provider.isComplete)
+    }
+
+    private fun serve(exchange: HttpExchange) {
+        exchange.responseHeaders.add("ETag", "\"v1\"")
+        val range = exchange.requestHeaders.getFirst("Range")
+        try {
+            if (!rangesSupported || range == null) {
+                exchange.sendResponseHeaders(200, DOCUMENT_SIZE.toLong())
+                exchange.responseBody.write(document)
+                return
+            }
+
+            val (first, last) = range.removePrefix("bytes=").split("-").map { it.toInt() }
+            val end = minOf(last, DOCUMENT_SIZE - 1)
+            if (first > 0 && first < DOCUMENT_SIZE - 2 * RangeRequestDataProvider.DEFAULT_BLOCK_SIZE) {
+                middleRangesReleased.await()
+            }
+            partialResponses.incrementAndGet()
+            exchange.responseHeaders.add("Content-Range", "bytes $first-$end/$DOCUMENT_SIZE")
+            exchange.sendResponseHeaders(206, (end - first + 1).toLong())
+            exchange.responseBody.write(document, first, end - first + 1)
+        } catch (e: IOException) {
+            // The provider was released while the response was sent.
+        }
+    }
+
+    companion object {
+        private const val DOCUMENT_SIZE = 3 * 1024 * 1024 + 1234
+    }
+}
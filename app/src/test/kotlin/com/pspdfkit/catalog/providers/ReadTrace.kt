@@ -0,0 +1,89 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers
+
+import java.io.File
+import kotlin.random.Random
+
+/** A single [com.pspdfkit.document.providers.DataProvider.read] call issued by the PDF engine. */
+data class TracedRead(
+    val thread: Int,
+    val offset: Long,
+    val size: Int,
+)
+
+/**
+ * The reads the PDF engine issued while working with a document, grouped by the thread that issued them. Each
+ * thread's reads are kept in their original order.
+ *
+ * Traces are stored as text, one read per line as `thread offset size`. Empty lines and lines starting with `#` are
+ * ignored, so a trace can be recorded by logging the arguments of every `read()` call of a provider together with an
+ * index for the calling thread.
+ */
+class ReadTrace(
+    reads: List<TracedRead>,
+) {
+    /** The reads of every traced thread, in the order the thread issued them. */
+    val threads: List<List<TracedRead>> =
+        reads
+            .groupBy { it.thread }
+            .toSortedMap()
+            .values
+            .toList()
+
+    val readCount: Int = reads.size
+
+    companion object {
+        fun parse(file: File): ReadTrace =
+            ReadTrace(
+                file.readLines().mapNotNull { line ->
+                    val trimmed = line.trim()
+                    if (trimmed.isEmpty() || trimmed.startsWith("#")) return@mapNotNull null
+                    val (thread, offset, size) = trimmed.split(Regex("\\s+"))
+                    TracedRead(thread.toInt(), offset.toLong(), size.toInt())
+                },
+            )
+
+        /**
+         * Creates a trace resembling how the PDF engine reads a document of [documentSize] bytes: the trailer and
+         * cross-reference table at the end of the file are read first, then [threadCount] threads render pages. Each
+         * page reads its page object, walks its content stream in small sequential reads, and loads a few larger
+         * resources like fonts and images from anywhere in the document.
+         */
+        fun synthetic(
+            documentSize: Long,
+            threadCount: Int = 8,
+            pagesPerThread: Int = 24,
+            seed: Int = 42,
+        ): ReadTrace {
+            val random = Random(seed)
+            val reads = mutableListOf<TracedRead>()
+            // Opening the document reads the trailer, then the cross-reference table in front of it.
+            reads += TracedRead(0, maxOf(0, documentSize - 1024), 1024)
+            reads += TracedRead(0, maxOf(0, documentSize - 64 * 1024), 64 * 1024)
+
+            for (thread in 0 until threadCount) {
+                repeat(pagesPerThread) {
+                    reads += TracedRead(thread, random.nextLong(documentSize), random.nextInt(200, 2048))
+
+                    var contentOffset = random.nextLong(documentSize)
+                    repeat(random.nextInt(4, 16)) {
+                        val size = random.nextInt(4096, 16 * 1024)
+                        reads += TracedRead(thread, contentOffset, size)
+                        contentOffset = (contentOffset + size) % documentSize
+                    }
+
+                    repeat(random.nextInt(0, 3)) {
+                        reads += TracedRead(thread, random.nextLong(documentSize), random.nextInt(32 * 1024, 256 * 1024))
+                    }
+                }
+            }
+            return ReadTrace(reads)
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.providers
+
+import com.pspdfkit.catalog.Benchmarks
+import com.pspdfkit.document.providers.DataProvider
+import com.pspdfkit.document.providers.InputStreamDataProvider
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.FilterInputStream
+import java.io.IOException
+import java.io.InputStream
+import kotlin.random.Random
+
+class WindowedInputStreamDataProviderTest {
+    private lateinit var document: ByteArray
+    private lateinit var file: File
+
+    @Before
+    fun setUp() {
+        document = Random(42).nextBytes(DOCUMENT_SIZE)
+        file = File.createTempFile("windowed", ".pdf")
+        file.writeBytes(document)
+    }
+
+    @After
+    fun tearDown() {
+        file.delete()
+    }
+
+    @Test
+    fun `random reads return the document`() {
+        val provider = WindowedFileProvider(file)
+        try {
+            val random = Random(1)
+            repeat(1000) {
+                val offset = random.nextInt(DOCUMENT_SIZE + 100)
+                val size = random.nextInt(4 * WindowedInputStreamDataProvider.WINDOW_SIZE)
+                val expected = document.copyOfRange(minOf(offset, DOCUMENT_SIZE), minOf(offset + size, DOCUMENT_SIZE))
+                assertArrayEquals(expected, provider.read(size.toLong(), offset.toLong()))
+            }
+        } finally {
+            provider.release()
+        }
+    }
+
+    @Test
+    fun `reading back and forth reopens the stream less often`() {
+        val windowed = WindowedFileProvider(file)
+        val plain = PlainFileProvider(file)
+        try {
+            replayXrefLookups(windowed)
+            replayXrefLookups(plain)
+            if (Benchmarks.enabled) {
+                println("Stream opens for $XREF_LOOKUPS object lookups through the cross-reference table:")
+                println("  InputStreamDataProvider:          ${plain.openCount}")
+                println("  WindowedInputStreamDataProvider:  ${windowed.streamOpenCount}")
+            }
+            assertTrue(windowed.streamOpenCount < plain.openCount)
+        } finally {
+            windowed.release()
+            plain.release()
+        }
+    }
+
+    @Test
+    fun `stream failures do not misalign later reads`() {
+        val windowSize = WindowedInputStreamDataProvider.WINDOW_SIZE
+        // Fails while reading ahead of the first window, and then in the middle of a later window.
+        val provider = FailingFileProvider(file, failures = listOf(windowSize + 100L, 5L * windowSize + 100))
+        try {
+            assertArrayEquals(document.copyOfRange(0, 100), provider.read(100, 0))
+            assertEquals(0, provider.read(100, 5L * windowSize + 200).size)
+            for (offset in listOf(2L * windowSize + 5, 5L * windowSize + 200, 7L * windowSize)) {
+                assertArrayEquals("at $offset", document.copyOfRange(offset.toInt(), offset.toInt() + 100), provider.read(100, offset))
+            }
+        } finally {
+            provider.release()
+        }
+    }
+
+    /** Looks up objects the way the PDF engine does: read the cross-reference table at the end, then the object. */
+    private fun replayXrefLookups(provider: DataProvider) {
+        val random = Random(3)
+        repeat(XREF_LOOKUPS) {
+            provider.read(1024, DOCUMENT_SIZE - 16L * 1024 + random.nextInt(15 * 1024))
+            provider.read(random.nextLong(256, 4096), random.nextLong(DOCUMENT_SIZE - 16L * 1024))
+        }
+    }
+
+    private class WindowedFileProvider(
+        private val file: File,
+    ) : WindowedInputStreamDataProvider() {
+        override fun openInputStream(): InputStream = file.inputStream()
+
+        override fun getSize(): Long = file.length()
+
+        override fun getUid(): String = file.path
+
+        override fun getTitle(): String? = null
+    }
+
+    /** Opens streams that throw once they reach the next of [failures], given as positions in the document. */
+    private class FailingFileProvider(
+        private val file: File,
+        failures: List<Long>,
+    ) : WindowedInputStreamDataProvider() {
+        private val failures = ArrayDeque(failures)
+
+        override fun openInputStream(): InputStream =
+            object : FilterInputStream(file.inputStream()) {
+                private var position = 0L
+
+                override fun read(): Int {
+                    val byte = ByteArray(1)
+                    return if (read(byte, 0, 1) < 0) -1 else byte[0].toInt() and 0xFF
+                }
+
+                override fun read(b: ByteArray, off: Int, len: Int): Int {
+                    val failure = failures.firstOrNull()
+                    if (failure != null && position + len > failure) {
+                        failures.removeFirst()
+                        position += super.read(b, off, (failure - position).toInt())
+                        throw IOException("Connection lost at $position")
+                    }
+                    return super.read(b, off, len).also { if (it > 0) position += it }
+                }
+
+                override fun skip(n: Long): Long = super.skip(n).also { position += it }
+            }
+
+        override fun getSize(): Long = file.length()
+
+        override fun getUid(): String = file.path
+
+        override fun getTitle(): String? = null
+    }
+
+    private class PlainFileProvider(
+        private val file: File,
+    ) : InputStreamDataProvider() {
+        var openCount = 0
+
+        override fun openInputStream(): InputStream {
+            openCount++
+            return file.inputStream()
+        }
+
+        override fun getSize(): Long = file.length()
+
+        override fun getUid(): String = file.path
+
+        override fun getTitle(): String? = null
+    }
+
+    companion object {
+        private const val DOCUMENT_SIZE = 4 * 1024 * 1024 + 77
+        private const val XREF_LOOKUPS = 200
+    }
+}
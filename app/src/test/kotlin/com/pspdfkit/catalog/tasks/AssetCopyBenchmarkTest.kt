@@ -0,0 +1,118 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks
+
+import com.pspdfkit.catalog.Benchmarks
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import kotlin.random.Random
+
+/**
+ * Compares extraction throughput of the kernel-side [AssetCopy.transfer] path against the buffered
+ * [AssetCopy.copy] stream path. The source file mimics an APK holding an uncompressed asset at an offset. The benchmark
+ * only runs if [Benchmarks] are enabled.
+ */
+class AssetCopyBenchmarkTest {
+    private lateinit var apk: File
+    private lateinit var asset: ByteArray
+
+    @Before
+    fun setUp() {
+        asset = Random(42).nextBytes(ASSET_SIZE)
+        apk = File.createTempFile("benchmark", ".apk")
+        apk.outputStream().use { output ->
+            output.write(ByteArray(ASSET_OFFSET.toInt()))
+            output.write(asset)
+        }
+    }
+
+    @After
+    fun tearDown() {
+        apk.delete()
+    }
+
+    @Test
+    fun `transfer copies the asset region`() {
+        val target = File.createTempFile("transfer", ".pdf")
+        try {
+            transfer(target)
+            assertArrayEquals(asset, target.readBytes())
+        } finally {
+            target.delete()
+        }
+    }
+
+    @Test
+    fun `stream copy copies the asset`() {
+        val target = File.createTempFile("stream", ".pdf")
+        try {
+            streamCopy(target)
+            assertArrayEquals(asset, target.readBytes())
+        } finally {
+            target.delete()
+        }
+    }
+
+    @Test
+    fun `benchmark transfer against stream copy`() {
+        Benchmarks.assumeEnabled()
+        val target = File.createTempFile("benchmark", ".pdf")
+        try {
+            // Warm up both paths, so we don't measure class loading and JIT compilation.
+            repeat(WARMUP_ITERATIONS) {
+                transfer(target)
+                streamCopy(target)
+            }
+            val transferNanos = measure { transfer(target) }
+            val streamNanos = measure { streamCopy(target) }
+            println("Asset extraction throughput, ${ASSET_SIZE / MEGABYTE} MB asset:")
+            println("  FileChannel.transferTo: %.1f MB/s".format(throughput(transferNanos)))
+            println("  InputStream copy:       %.1f MB/s".format(throughput(streamNanos)))
+        } finally {
+            target.delete()
+        }
+    }
+
+    private fun transfer(target: File) {
+        FileInputStream(apk).channel.use { source ->
+            FileOutputStream(target).channel.use { destination ->
+                AssetCopy.transfer(source, ASSET_OFFSET, ASSET_SIZE.toLong(), destination, null)
+            }
+        }
+    }
+
+    private fun streamCopy(target: File) {
+        FileInputStream(apk).use { input ->
+            input.skipNBytes(ASSET_OFFSET)
+            FileOutputStream(target).use { output ->
+                AssetCopy.copy(input, output, ASSET_SIZE.toLong(), null)
+            }
+        }
+    }
+
+    private inline fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        repeat(MEASURED_ITERATIONS) { block() }
+        return (System.nanoTime() - start) / MEASURED_ITERATIONS
+    }
+
+    private fun throughput(nanosPerIteration: Long): Double = ASSET_SIZE.toDouble() / MEGABYTE / (nanosPerIteration / 1e9)
+
+    companion object {
+        private const val MEGABYTE = 1024 * 1024
+        private const val ASSET_SIZE = 16 * MEGABYTE
+        private const val ASSET_OFFSET = 4096L
+        private const val WARMUP_ITERATIONS = 2
+        private const val MEASURED_ITERATIONS = 5
+    }
+}
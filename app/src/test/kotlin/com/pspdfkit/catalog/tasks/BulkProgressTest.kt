@@ -0,0 +1,79 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.io.File
+
+/** Feeds [ExtractAssetTask.BulkProgress] the progress [AssetStore.cloneTo] reports while extracting assets. */
+class BulkProgressTest {
+    private val requests = listOf(request("a.pdf"), request("b.pdf"))
+    private val sizes = longArrayOf(3 * CHUNK_SIZE + 100, 5 * CHUNK_SIZE)
+
+    private val fileProgress = HashMap<String, Long>()
+    private val aggregateProgress = mutableListOf<Long>()
+
+    private val listener =
+        object : ExtractAssetTask.OnExtractionProgressListener {
+            override fun onFileProgress(request: ExtractAssetTask.AssetRequest, bytesExtracted: Long, totalBytes: Long) {
+                assertTrue(bytesExtracted <= totalBytes)
+                fileProgress[request.assetPath] = bytesExtracted
+            }
+
+            override fun onProgress(bytesExtracted: Long, totalBytes: Long) {
+                aggregateProgress += bytesExtracted
+            }
+        }
+
+    private val progress = ExtractAssetTask.BulkProgress(sizes, sizes.sum(), listener)
+
+    @Test
+    fun `first-time extraction ends exactly at the sum of the sizes`() {
+        requests.forEachIndexed { index, request ->
+            // An asset that isn't stored yet is copied into the store and then cloned, reported against twice its size.
+            val size = sizes[index]
+            reportCopy(size) { copied -> progress.onProgress(index, request, copied, 2 * size) }
+            reportCopy(size) { copied -> progress.onProgress(index, request, size + copied, 2 * size) }
+            progress.onProgress(index, request, size)
+        }
+
+        assertEquals(sizes.sum(), aggregateProgress.last())
+        assertEquals(aggregateProgress.sorted(), aggregateProgress)
+        requests.forEachIndexed { index, request -> assertEquals(sizes[index], fileProgress[request.assetPath]) }
+    }
+
+    @Test
+    fun `extraction of a stored asset ends exactly at its size`() {
+        val size = sizes[0]
+        reportCopy(size) { copied -> progress.onProgress(0, requests[0], copied, size) }
+        progress.onProgress(0, requests[0], size)
+
+        assertEquals(size, aggregateProgress.last())
+        assertEquals(size, fileProgress[requests[0].assetPath])
+    }
+
+    /** Reports copying [size] bytes in chunks, like [AssetCopy] does. */
+    private fun reportCopy(
+        size: Long,
+        report: (Long) -> Unit,
+    ) {
+        var copied = 0L
+        while (copied < size) {
+            copied = minOf(size, copied + CHUNK_SIZE)
+            report(copied)
+        }
+    }
+
+    private fun request(assetPath: String) = ExtractAssetTask.AssetRequest(assetPath, File(assetPath))
+
+    companion object {
+        private const val CHUNK_SIZE = 64 * 1024L
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks
+
+import com.pspdfkit.catalog.Benchmarks
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import org.junit.After
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertFalse
+import org.junit.Before
+import org.junit.Test
+import java.io.File
+import java.io.IOException
+import java.net.InetAddress
+import java.net.InetSocketAddress
+import java.net.URL
+import java.util.concurrent.Executors
+import kotlin.random.Random
+
+/**
+ * Downloads a document from a local server simulating a link with a high round-trip time: every response starts after
+ * one round trip, and each connection only sends [WINDOW_SIZE] bytes per round trip, like TCP waiting for
+ * acknowledgements. Comparing the download times against a single stream only runs if [Benchmarks] are enabled.
+ */
+class SegmentedDownloadSourceTest {
+    private val document = Random(42).nextBytes(DOCUMENT_SIZE)
+    private val executor = Executors.newCachedThreadPool()
+    private lateinit var server: HttpServer
+    private lateinit var downloadFile: File
+
+    @Volatile
+    private var roundTripMillis = 0L
+
+    @Volatile
+    private var rangesSupported = true
+
+    @Before
+    fun setUp() {
+        server = HttpServer.create(InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0)
+        server.executor = executor
+        server.createContext("/document.pdf") { exchange -> exchange.use { serve(it) } }
+        server.start()
+        downloadFile = File.createTempFile("segmented", ".pdf")
+    }
+
+    @After
+    fun tearDown() {
+        server.stop(0)
+        executor.shutdownNow()
+        downloadFile.delete()
+    }
+
+    @Test
+    fun `segmented download returns the document`() {
+        assertArrayEquals(document, downloadSegmented())
+        assertFalse(downloadFile.exists())
+    }
+
+    @Test
+    fun `servers without range support are downloaded over one connection`() {
+        rangesSupported = false
+        assertArrayEquals(document, downloadSegmented())
+    }
+
+    @Test
+    fun `benchmark segmented download against a single stream`() {
+        Benchmarks.assumeEnabled()
+        println("Downloading ${DOCUMENT_SIZE / 1024} KB with $WINDOW_SIZE bytes per round trip and connection:")
+        for (roundTrip in ROUND_TRIPS_MILLIS) {
+            roundTripMillis = roundTrip
+            val singleStart = System.nanoTime()
+            val single = URL(url()).openStream().use { it.readBytes() }
+            val singleNanos = System.nanoTime() - singleStart
+
+            val segmentedStart = System.nanoTime()
+            val segmented = downloadSegmented()
+            val segmentedNanos = System.nanoTime() - segmentedStart
+
+            assertArrayEquals(document, single)
+            assertArrayEquals(document, segmented)
+            println(
+                "  RTT %3d ms: single stream %6.0f ms, segmented %6.0f ms (%.1fx)".format(
+                    roundTrip,
+                    singleNanos / 1e6,
+                    segmentedNanos / 1e6,
+                    singleNanos.toDouble() / segmentedNanos,
+                ),
+            )
+        }
+    }
+
+    private fun downloadSegmented(): ByteArray =
+        SegmentedDownloadSource(URL(url()), downloadFile, SEGMENT_SIZE, SegmentedDownloadSource.DEFAULT_MAX_CONNECTIONS)
+            .open()
+            .use { it.readBytes() }
+
+    private fun url() = "http://${server.address.hostString}:${server.address.port}/document.pdf"
+
+    private fun serve(exchange: HttpExchange) {
+        try {
+            Thread.sleep(roundTripMillis)
+            val range = exchange.requestHeaders.getFirst("Range")
+            var first = 0
+            var last = DOCUMENT_SIZE - 1
+            if (rangesSupported && range != null) {
+                val (start, end) = range.removePrefix("bytes=").split("-").map { it.toInt() }
+                first = start
+                last = minOf(end, DOCUMENT_SIZE - 1)
+                exchange.responseHeaders.add("Content-Range", "bytes $first-$last/$DOCUMENT_SIZE")
+                exchange.sendResponseHeaders(206, (last - first + 1).toLong())
+            } else {
+                exchange.sendResponseHeaders(200, DOCUMENT_SIZE.toLong())
+            }
+
+            var position = first
+            while (position <= last) {
+                val count = minOf(WINDOW_SIZE, last + 1 - position)
+                exchange.responseBody.write(document, position, count)
+                exchange.responseBody.flush()
+                position += count
+                Thread.sleep(roundTripMillis)
+            }
+        } catch (e: IOException) {
+            // The client closed the connection.
+        }
+    }
+
+    companion object {
+        private const val DOCUMENT_SIZE = 4 * 1024 * 1024 + 999
+        private const val SEGMENT_SIZE = 256 * 1024
+        private const val WINDOW_SIZE = 64 * 1024
+        private val ROUND_TRIPS_MILLIS = listOf(5L, 20L, 40L)
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.tasks
+
+import io.reactivex.rxjava3.core.Single
+import io.reactivex.rxjava3.schedulers.Schedulers
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+class SingleFlightTest {
+    private val singleFlight = SingleFlight<String, String>()
+    private val executions = AtomicInteger()
+    private val release = CountDownLatch(1)
+
+    /** Simulates an extraction that blocks until the test releases it. */
+    private val work =
+        Single
+            .fromCallable {
+                executions.incrementAndGet()
+                release.await()
+                RESULT
+            }.subscribeOn(Schedulers.io())
+
+    @Test
+    fun `concurrent callers share a single execution`() {
+        val start = CountDownLatch(1)
+        val pool = Executors.newFixedThreadPool(CALLERS)
+        try {
+            val futures =
+                (1..CALLERS).map {
+                    pool.submit(
+                        Callable {
+                            start.await()
+                            singleFlight.execute(KEY) { work }.test()
+                        },
+                    )
+                }
+            start.countDown()
+            val observers = futures.map { it.get() }
+            release.countDown()
+
+            observers.forEach { observer ->
+                assertTrue(observer.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                observer.assertValue(RESULT)
+            }
+            assertEquals(1, executions.get())
+        } finally {
+            pool.shutdownNow()
+        }
+    }
+
+    @Test
+    fun `disposing one caller does not cancel the others`() {
+        val first = singleFlight.execute(KEY) { work }.test()
+        val second = singleFlight.execute(KEY) { work }.test()
+
+        first.dispose()
+        release.countDown()
+
+        assertTrue(second.await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        second.assertValue(RESULT)
+        assertEquals(1, executions.get())
+    }
+
+    @Test
+    fun `work is cancelled once all callers disposed`() {
+        val cancelled = AtomicBoolean(false)
+        val neverEndingWork = Single.never<String>().doOnDispose { cancelled.set(true) }
+
+        val first = singleFlight.execute(KEY) { neverEndingWork }.test()
+        val second = singleFlight.execute(KEY) { neverEndingWork }.test()
+
+        first.dispose()
+        assertFalse(cancelled.get())
+        second.dispose()
+        assertTrue(cancelled.get())
+        assertEquals(0, singleFlight.inFlightCount)
+    }
+
+    @Test
+    fun `work runs again after the previous execution finished`() {
+        release.countDown()
+
+        singleFlight.execute(KEY) { work }.blockingGet()
+        singleFlight.execute(KEY) { work }.blockingGet()
+
+        assertEquals(2, executions.get())
+    }
+
+    companion object {
+        private const val KEY = "Nutrient welcome.pdf"
+        private const val RESULT = "extracted"
+        private const val CALLERS = 32
+        private const val TIMEOUT_SECONDS = 5L
+    }
+}
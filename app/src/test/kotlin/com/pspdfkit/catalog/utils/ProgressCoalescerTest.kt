@@ -0,0 +1,102 @@
+/*
+ *   Copyright © 2026 PSPDFKit GmbH. All rights reserved.
+ *
+ *   The PSPDFKit Sample applications are licensed with a modified BSD license.
+ *   Please see License for details. This notice may not be removed from this file.
+ */
+
+package com.pspdfkit.catalog.utils
+
+import com.pspdfkit.catalog.Benchmarks
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+
+/**
+ * Counts the main thread messages a download's progress costs. The main thread is simulated by [FakeFrames], which
+ * counts every posted callback as one message and runs them when a frame is due.
+ */
+class ProgressCoalescerTest {
+    private class FakeFrames : ProgressCoalescer.FrameScheduler {
+        val messages = AtomicInteger()
+        private val pending = ConcurrentLinkedQueue<Runnable>()
+
+        override fun postFrameCallback(callback: Runnable) {
+            messages.incrementAndGet()
+            pending.add(callback)
+        }
+
+        fun runFrame() {
+            repeat(pending.size) { pending.poll()?.run() }
+        }
+    }
+
+    @Test
+    fun `download progress costs at most one message per frame`() {
+        // Without coalescing, every received buffer posts its progress to the main thread.
+        val uncoalescedMessages = DOWNLOAD_SIZE / BUFFER_SIZE
+
+        val frames = FakeFrames()
+        val delivered = mutableListOf<Long>()
+        val coalescer = ProgressCoalescer<Long>(frames) { delivered += it }
+        var frameCount = 0
+        var nextFrameNanos = FRAME_NANOS
+        var received = 0L
+        while (received < DOWNLOAD_SIZE) {
+            received += BUFFER_SIZE
+            coalescer.publish(received)
+            val elapsedNanos = received * 1_000_000_000 / LINK_BYTES_PER_SECOND
+            while (elapsedNanos >= nextFrameNanos) {
+                frames.runFrame()
+                frameCount++
+                nextFrameNanos += FRAME_NANOS
+            }
+        }
+        var completed = false
+        coalescer.finish { completed = true }
+        frames.runFrame()
+        frameCount++
+
+        if (Benchmarks.enabled) {
+            val megabytes = DOWNLOAD_SIZE / (1024 * 1024)
+            println("Main thread messages per MB of download progress, ${LINK_BYTES_PER_SECOND / (1024 * 1024)} MB/s link:")
+            println("  every buffer:   %6.1f".format(uncoalescedMessages.toDouble() / megabytes))
+            println("  once per frame: %6.1f".format(frames.messages.get().toDouble() / megabytes))
+        }
+
+        assertTrue(frames.messages.get() <= frameCount)
+        assertTrue(delivered.size <= frameCount)
+        assertEquals(DOWNLOAD_SIZE, delivered.last())
+        assertTrue(completed)
+    }
+
+    @Test
+    fun `last value is delivered before completion when published from another thread`() {
+        val frames = FakeFrames()
+        val delivered = ConcurrentLinkedQueue<Int>()
+        val completedAfter = AtomicInteger(-1)
+        val coalescer = ProgressCoalescer<Int>(frames) { delivered += it }
+
+        val producer =
+            thread {
+                for (value in 1..100_000) coalescer.publish(value)
+                coalescer.finish { completedAfter.set(delivered.last()) }
+            }
+        while (producer.isAlive) frames.runFrame()
+        frames.runFrame()
+
+        assertEquals(100_000, delivered.last())
+        assertEquals(100_000, completedAfter.get())
+        assertEquals(delivered.sorted(), delivered.toList())
+    }
+
+    companion object {
+        private const val DOWNLOAD_SIZE = 64L * 1024 * 1024
+        private const val BUFFER_SIZE = 8L * 1024
+        private const val LINK_BYTES_PER_SECOND = 40L * 1024 * 1024
+        private const val FRAME_NANOS = 1_000_000_000L / 60
+    }
+}